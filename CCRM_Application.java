@@ -1,11 +1,46 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -18,6 +53,16 @@ public class CCRM_Application {
             private final Path dataDirectory = Paths.get("data");
             private final Path backupDirectory = Paths.get("backups");
             private final Path exportsDirectory = Paths.get("exports");
+            private final int transcriptCacheSize = 10_000;
+            private final boolean lazyStudentLoading = Boolean.getBoolean("ccrm.students.lazy");
+            private final int studentCacheSize = Integer.getInteger("ccrm.students.cacheSize", 10_000);
+            private final int syntheticStudents = Integer.getInteger("ccrm.data.syntheticStudents", 0);
+            private final int shardIndex = Integer.getInteger("ccrm.shard.index", 0);
+            private final int shardCount = Integer.getInteger("ccrm.shard.count", 1);
+            private final long backupIntervalSeconds = Long.getLong("ccrm.backup.intervalSeconds", 3600);
+            private final long backupBytesPerSecond = Long.getLong("ccrm.backup.bytesPerSecond", 1L << 20);
+            private final int backupKeepHourly = Integer.getInteger("ccrm.backup.keepHourly", 24);
+            private final int backupKeepDaily = Integer.getInteger("ccrm.backup.keepDaily", 7);
 
             private AppConfig() {}
 
@@ -28,6 +73,21 @@ public class CCRM_Application {
             public Path getDataDirectory() { return dataDirectory; }
             public Path getBackupDirectory() { return backupDirectory; }
             public Path getExportsDirectory() { return exportsDirectory; }
+            public int getTranscriptCacheSize() { return transcriptCacheSize; }
+            public boolean isLazyStudentLoading() { return lazyStudentLoading; }
+            public int getStudentCacheSize() { return studentCacheSize; }
+            public int getSyntheticStudents() { return syntheticStudents; }
+            public int getShardIndex() { return shardIndex; }
+            public int getShardCount() { return shardCount; }
+            public long getBackupIntervalSeconds() { return backupIntervalSeconds; }
+            public long getBackupBytesPerSecond() { return backupBytesPerSecond; }
+            public int getBackupKeepHourly() { return backupKeepHourly; }
+            public int getBackupKeepDaily() { return backupKeepDaily; }
+
+            // In a sharded cluster each worker loads and serves only the students that hash to it.
+            public boolean ownsStudent(String studentId) {
+                return shardCount <= 1 || cluster.ShardRouter.shardFor(studentId, shardCount) == shardIndex;
+            }
         }
     }
 
@@ -47,6 +107,10 @@ public class CCRM_Application {
         public static class MaxCreditLimitExceededException extends Exception {
             public MaxCreditLimitExceededException(String message) { super(message); }
         }
+
+        public static class EnrollmentNotFoundException extends Exception {
+            public EnrollmentNotFoundException(String message) { super(message); }
+        }
     }
 
     public static class domain {
@@ -59,7 +123,7 @@ public class CCRM_Application {
 
         public enum Semester { SPRING, SUMMER, FALL, WINTER }
 
-        public static final class CourseCode {
+        public static final class CourseCode implements Comparable<CourseCode> {
             private final String department;
             private final int number;
 
@@ -70,6 +134,11 @@ public class CCRM_Application {
                 this.number = number;
             }
 
+            public static CourseCode parse(String code) {
+                String normalized = code.trim().toUpperCase();
+                return new CourseCode(normalized.replaceAll("[0-9]", ""), Integer.parseInt(normalized.replaceAll("[^0-9]", "")));
+            }
+
             @Override
             public String toString() { return department + number; }
 
@@ -83,12 +152,62 @@ public class CCRM_Application {
 
             @Override
             public int hashCode() { return Objects.hash(department, number); }
+
+            @Override
+            public int compareTo(CourseCode other) {
+                int byDepartment = department.compareTo(other.department);
+                return byDepartment != 0 ? byDepartment : Integer.compare(number, other.number);
+            }
+        }
+
+        public abstract static class Trackable {
+            private volatile Runnable changeListener;
+
+            public void setChangeListener(Runnable changeListener) { this.changeListener = changeListener; }
+
+            protected void markChanged() {
+                Runnable listener = changeListener;
+                if (listener != null) listener.run();
+            }
+        }
+
+        public static class ChangeTracker<K> {
+            private static final AtomicLong SEQUENCE = new AtomicLong();
+            private final Map<K, Long> dirty = new ConcurrentHashMap<>();
+            private final ConcurrentSkipListMap<Long, K> log = new ConcurrentSkipListMap<>();
+
+            public static long currentSequence() { return SEQUENCE.get(); }
+
+            // Atomic per key, so concurrent marks can never unlink the newer sequence from the log.
+            public long markDirty(K key) {
+                long[] seq = new long[1];
+                dirty.compute(key, (k, previous) -> {
+                    seq[0] = SEQUENCE.incrementAndGet();
+                    log.put(seq[0], k);
+                    if (previous != null) log.remove(previous);
+                    return seq[0];
+                });
+                return seq[0];
+            }
+
+            public Set<K> changedSince(long sinceSeq, long throughSeq) {
+                if (throughSeq <= sinceSeq) return new LinkedHashSet<>();
+                return new LinkedHashSet<>(log.subMap(sinceSeq, false, throughSeq, true).values());
+            }
+
+            public int dirtyCount() { return dirty.size(); }
+
+            public void prune(long throughSeq) {
+                Map<Long, K> head = log.headMap(throughSeq, true);
+                head.forEach((seq, key) -> dirty.remove(key, seq));
+                head.clear();
+            }
         }
 
-        public abstract static class Person {
+        public abstract static class Person extends Trackable {
             protected final String id;
-            protected String fullName;
-            protected String email;
+            protected volatile String fullName;
+            protected volatile String email;
 
             public Person(String id, String fullName, String email) {
                 this.id = id;
@@ -100,13 +219,13 @@ public class CCRM_Application {
 
             public String getId() { return id; }
             public String getFullName() { return fullName; }
-            public void setFullName(String fullName) { this.fullName = fullName; }
+            public void setFullName(String fullName) { this.fullName = fullName; markChanged(); }
             public String getEmail() { return email; }
-            public void setEmail(String email) { this.email = email; }
+            public void setEmail(String email) { this.email = email; markChanged(); }
         }
 
         public static class Instructor extends Person {
-            private String department;
+            private volatile String department;
 
             public Instructor(String id, String fullName, String email, String department) {
                 super(id, fullName, email);
@@ -117,12 +236,25 @@ public class CCRM_Application {
                 return String.format("Instructor: %s (%s) - Dept: %s", fullName, email, department);
             }
             public String getDepartment() { return department; }
+            public void setDepartment(String department) { this.department = department; markChanged(); }
+
+            public boolean updateFrom(Instructor source) {
+                if (Objects.equals(fullName, source.fullName) && Objects.equals(email, source.email)
+                        && Objects.equals(department, source.department)) {
+                    return false;
+                }
+                this.fullName = source.fullName;
+                this.email = source.email;
+                this.department = source.department;
+                markChanged();
+                return true;
+            }
         }
 
         public static class Student extends Person {
             private final String regNo;
             private final LocalDate enrollmentDate;
-            private boolean active = true;
+            private volatile boolean active = true;
 
             public Student(String id, String regNo, String fullName, String email) {
                 super(id, fullName, email);
@@ -138,15 +270,28 @@ public class CCRM_Application {
 
             public String getRegNo() { return regNo; }
             public boolean isActive() { return active; }
-            public void setActive(boolean active) { this.active = active; }
+
+            public StudentRecord toRecord() { return new StudentRecord(id, regNo, fullName, email, active); }
+            public void setActive(boolean active) { this.active = active; markChanged(); }
+
+            public boolean updateFrom(Student source) {
+                if (Objects.equals(fullName, source.fullName) && Objects.equals(email, source.email) && active == source.active) {
+                    return false;
+                }
+                this.fullName = source.fullName;
+                this.email = source.email;
+                this.active = source.active;
+                markChanged();
+                return true;
+            }
         }
 
-        public static class Course {
+        public static class Course extends Trackable {
             private final CourseCode courseCode;
-            private final String title;
-            private final int credits;
-            private Instructor instructor;
-            private final Semester semester;
+            private volatile String title;
+            private volatile int credits;
+            private volatile Instructor instructor;
+            private volatile Semester semester;
 
             private Course(Builder builder) {
                 this.courseCode = builder.courseCode;
@@ -161,10 +306,27 @@ public class CCRM_Application {
             public int getCredits() { return credits; }
             public Instructor getInstructor() { return instructor; }
             public Semester getSemester() { return semester; }
-            public void setInstructor(Instructor instructor) { this.instructor = instructor; }
+            public void setInstructor(Instructor instructor) { this.instructor = instructor; markChanged(); }
             public String getInstructorName() { return instructor != null ? instructor.getFullName() : "TBD"; }
             public String getDepartment() { return courseCode.department; }
 
+            public CourseRecord toRecord() {
+                return new CourseRecord(courseCode, title, credits, semester, instructor != null ? instructor.getId() : "N/A");
+            }
+
+            public boolean updateFrom(Course source) {
+                if (Objects.equals(title, source.title) && credits == source.credits
+                        && semester == source.semester && instructor == source.instructor) {
+                    return false;
+                }
+                this.title = source.title;
+                this.credits = source.credits;
+                this.semester = source.semester;
+                this.instructor = source.instructor;
+                markChanged();
+                return true;
+            }
+
             @Override
             public String toString() {
                 return String.format("Course[%s]: %s (%d credits) | Instructor: %s | Semester: %s",
@@ -204,10 +366,73 @@ public class CCRM_Application {
             }
         }
 
-        public static class Enrollment {
+        public static final class StudentRecord {
+            private final String id;
+            private final String regNo;
+            private final String fullName;
+            private final String email;
+            private final boolean active;
+
+            public StudentRecord(String id, String regNo, String fullName, String email, boolean active) {
+                this.id = id;
+                this.regNo = regNo;
+                this.fullName = fullName;
+                this.email = email;
+                this.active = active;
+            }
+
+            public String getId() { return id; }
+            public String getRegNo() { return regNo; }
+            public String getFullName() { return fullName; }
+            public String getEmail() { return email; }
+            public boolean isActive() { return active; }
+        }
+
+        public static final class CourseRecord {
+            private final CourseCode courseCode;
+            private final String title;
+            private final int credits;
+            private final Semester semester;
+            private final String instructorId;
+
+            public CourseRecord(CourseCode courseCode, String title, int credits, Semester semester, String instructorId) {
+                this.courseCode = courseCode;
+                this.title = title;
+                this.credits = credits;
+                this.semester = semester;
+                this.instructorId = instructorId;
+            }
+
+            public CourseCode getCourseCode() { return courseCode; }
+            public String getTitle() { return title; }
+            public int getCredits() { return credits; }
+            public Semester getSemester() { return semester; }
+            public String getInstructorId() { return instructorId; }
+        }
+
+        public static final class EnrollmentRecord {
+            private final String studentId;
+            private final CourseCode courseCode;
+            private final int credits;
+            private final Grade grade;
+
+            public EnrollmentRecord(String studentId, CourseCode courseCode, int credits, Grade grade) {
+                this.studentId = studentId;
+                this.courseCode = courseCode;
+                this.credits = credits;
+                this.grade = grade;
+            }
+
+            public String getStudentId() { return studentId; }
+            public CourseCode getCourseCode() { return courseCode; }
+            public int getCredits() { return credits; }
+            public Grade getGrade() { return grade; }
+        }
+
+        public static class Enrollment extends Trackable {
             private final Student student;
             private final Course course;
-            private Grade grade;
+            private volatile Grade grade;
 
             public Enrollment(Student student, Course course) {
                 this.student = student;
@@ -218,7 +443,11 @@ public class CCRM_Application {
             public Student getStudent() { return student; }
             public Course getCourse() { return course; }
             public Grade getGrade() { return grade; }
-            public void setGrade(Grade grade) { this.grade = grade; }
+            public void setGrade(Grade grade) { this.grade = grade; markChanged(); }
+
+            public EnrollmentRecord toRecord() {
+                return new EnrollmentRecord(student.getId(), course.getCourseCode(), course.getCredits(), grade);
+            }
 
             @Override
             public String toString() {
@@ -241,12 +470,226 @@ public class CCRM_Application {
                         }
                     }
                 } catch (IOException e) {
-                    System.err.println("Error calculating size for " + path + ": " + e.getMessage());
+                    Log.error("util.fs", "Error calculating directory size", "path", path, "error", e.getMessage());
                 }
                 return totalSize;
             }
         }
         
+        public static class JsonUtils {
+            public static String quote(String value) {
+                if (value == null) return "null";
+                StringBuilder sb = new StringBuilder(value.length() + 2).append('"');
+                for (int i = 0; i < value.length(); i++) {
+                    char c = value.charAt(i);
+                    switch (c) {
+                        case '"' -> sb.append("\\\"");
+                        case '\\' -> sb.append("\\\\");
+                        case '\n' -> sb.append("\\n");
+                        case '\r' -> sb.append("\\r");
+                        case '\t' -> sb.append("\\t");
+                        default -> {
+                            if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                            else sb.append(c);
+                        }
+                    }
+                }
+                return sb.append('"').toString();
+            }
+        }
+
+        // Asynchronous structured logging. Callers only claim a slot in a lock-free ring buffer and return; one
+        // background thread formats and writes events in batches. A full ring drops events (counted and reported
+        // later) instead of blocking the caller. Use flush() where console ordering matters, e.g. before a prompt.
+        public static final class Log {
+            public enum Level { DEBUG, INFO, WARN, ERROR }
+
+            private static final class Event {
+                private final long timestamp = System.currentTimeMillis();
+                private final String thread = Thread.currentThread().getName();
+                private final Level level;
+                private final String source;
+                private final String message;
+                private final Object[] fields;
+
+                Event(Level level, String source, String message, Object[] fields) {
+                    this.level = level;
+                    this.source = source;
+                    this.message = message;
+                    this.fields = fields;
+                }
+            }
+
+            private static final class RateLimit {
+                private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+                private final AtomicInteger emitted = new AtomicInteger();
+                private final AtomicInteger suppressed = new AtomicInteger();
+            }
+
+            private static final int CAPACITY = Integer.highestOneBit(Math.max(1024, Integer.getInteger("ccrm.log.bufferSize", 65_536)));
+            private static final Level THRESHOLD = parseLevel(System.getProperty("ccrm.log.level", "INFO"));
+            private static final boolean JSON = "json".equalsIgnoreCase(System.getProperty("ccrm.log.format"));
+            private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm:ss.SSS");
+            private static final AtomicReferenceArray<Event> slots = new AtomicReferenceArray<>(CAPACITY);
+            private static final AtomicLong claimed = new AtomicLong();
+            private static final AtomicLong dropped = new AtomicLong();
+            private static final Map<String, RateLimit> rateLimits = new ConcurrentHashMap<>();
+            private static volatile long drained;
+            private static volatile long written;
+            private static volatile boolean writerParked;
+            private static final Thread writer = new Thread(Log::drain, "ccrm-log-writer");
+
+            static {
+                writer.setDaemon(true);
+                writer.start();
+                Runtime.getRuntime().addShutdownHook(new Thread(Log::flush, "ccrm-log-flush"));
+            }
+
+            private Log() {}
+
+            // Runs in the static initializer, so a typo must not fail class init: fall back to INFO and say so once.
+            private static Level parseLevel(String value) {
+                String name = value.trim().toUpperCase(Locale.ROOT);
+                if ("WARNING".equals(name)) return Level.WARN;
+                try {
+                    return Level.valueOf(name);
+                } catch (IllegalArgumentException e) {
+                    System.err.println("Unknown ccrm.log.level '" + value + "'; using INFO (expected DEBUG, INFO, WARN or ERROR)");
+                    return Level.INFO;
+                }
+            }
+
+            // Fields are alternating key/value pairs: Log.info("io.backup", "Backup completed", "files", 3).
+            public static void debug(String source, String message, Object... fields) { log(Level.DEBUG, source, message, fields); }
+            public static void info(String source, String message, Object... fields) { log(Level.INFO, source, message, fields); }
+            public static void warn(String source, String message, Object... fields) { log(Level.WARN, source, message, fields); }
+            public static void error(String source, String message, Object... fields) { log(Level.ERROR, source, message, fields); }
+
+            // Logs at most perSecond events per key; the next event that gets through carries a "suppressed" count.
+            public static void limited(Level level, String key, int perSecond, String source, String message, Object... fields) {
+                if (!isEnabled(level)) return;
+                RateLimit limit = rateLimits.computeIfAbsent(key, k -> new RateLimit());
+                long now = System.nanoTime();
+                long start = limit.windowStart.get();
+                if (now - start >= TimeUnit.SECONDS.toNanos(1) && limit.windowStart.compareAndSet(start, now)) {
+                    limit.emitted.set(0);
+                }
+                if (limit.emitted.incrementAndGet() > perSecond) {
+                    limit.suppressed.incrementAndGet();
+                    return;
+                }
+                int suppressed = limit.suppressed.getAndSet(0);
+                if (suppressed > 0) {
+                    fields = Arrays.copyOf(fields, fields.length + 2);
+                    fields[fields.length - 2] = "suppressed";
+                    fields[fields.length - 1] = suppressed;
+                }
+                log(level, source, message, fields);
+            }
+
+            public static boolean isEnabled(Level level) { return level.compareTo(THRESHOLD) >= 0; }
+
+            public static long getDroppedCount() { return dropped.get(); }
+
+            public static void log(Level level, String source, String message, Object... fields) {
+                if (!isEnabled(level)) return;
+                Event event = new Event(level, source, message, fields);
+                long slot;
+                do {
+                    slot = claimed.get();
+                    if (slot - drained >= CAPACITY) {
+                        dropped.incrementAndGet();
+                        return;
+                    }
+                } while (!claimed.compareAndSet(slot, slot + 1));
+                slots.set((int) (slot & (CAPACITY - 1)), event);
+                if (writerParked) LockSupport.unpark(writer);
+            }
+
+            // Blocks until everything logged before this call has been written out.
+            public static void flush() {
+                long target = claimed.get();
+                while (written < target && writer.isAlive()) {
+                    LockSupport.unpark(writer);
+                    LockSupport.parkNanos(100_000);
+                }
+            }
+
+            private static void drain() {
+                StringBuilder out = new StringBuilder();
+                StringBuilder err = new StringBuilder();
+                long reportedDrops = 0;
+                while (true) {
+                    long next = drained;
+                    int index = (int) (next & (CAPACITY - 1));
+                    Event event = slots.get(index);
+                    if (event == null) {
+                        if (next < claimed.get()) {
+                            Thread.onSpinWait(); // slot claimed, event not stored yet
+                            continue;
+                        }
+                        long drops = dropped.get();
+                        if (drops > reportedDrops) {
+                            err.append(format(new Event(Level.WARN, "util.log", "Dropped log events (buffer full)",
+                                    new Object[] {"count", drops - reportedDrops}))).append(System.lineSeparator());
+                            reportedDrops = drops;
+                        }
+                        write(out, err);
+                        written = next;
+                        writerParked = true;
+                        if (claimed.get() == next) LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50));
+                        writerParked = false;
+                        continue;
+                    }
+                    slots.set(index, null);
+                    drained = next + 1;
+                    (event.level.compareTo(Level.WARN) >= 0 ? err : out).append(format(event)).append(System.lineSeparator());
+                    if (out.length() + err.length() > 64 * 1024) {
+                        write(out, err);
+                        written = next + 1;
+                    }
+                }
+            }
+
+            private static void write(StringBuilder out, StringBuilder err) {
+                if (out.length() > 0) {
+                    System.out.print(out);
+                    System.out.flush();
+                    out.setLength(0);
+                }
+                if (err.length() > 0) {
+                    System.err.print(err);
+                    System.err.flush();
+                    err.setLength(0);
+                }
+            }
+
+            private static String format(Event e) {
+                String time = LocalDateTime.ofInstant(Instant.ofEpochMilli(e.timestamp), ZoneId.systemDefault()).format(TIME);
+                StringBuilder sb = new StringBuilder(96);
+                if (JSON) {
+                    sb.append("{\"time\":").append(JsonUtils.quote(time))
+                      .append(",\"level\":").append(JsonUtils.quote(e.level.name()))
+                      .append(",\"source\":").append(JsonUtils.quote(e.source))
+                      .append(",\"thread\":").append(JsonUtils.quote(e.thread))
+                      .append(",\"message\":").append(JsonUtils.quote(e.message));
+                    for (int i = 0; i + 1 < e.fields.length; i += 2) {
+                        Object value = e.fields[i + 1];
+                        sb.append(',').append(JsonUtils.quote(String.valueOf(e.fields[i]))).append(':')
+                          .append(value instanceof Number || value instanceof Boolean ? value.toString() : JsonUtils.quote(String.valueOf(value)));
+                    }
+                    return sb.append('}').toString();
+                }
+                sb.append(time).append(' ').append(String.format("%-5s", e.level)).append(" [").append(e.source).append("] ").append(e.message);
+                for (int i = 0; i + 1 < e.fields.length; i += 2) {
+                    String value = String.valueOf(e.fields[i + 1]);
+                    sb.append(' ').append(e.fields[i]).append('=')
+                      .append(value.isEmpty() || value.indexOf(' ') >= 0 || value.indexOf('"') >= 0 ? JsonUtils.quote(value) : value);
+                }
+                return sb.toString();
+            }
+        }
+
         public static class MiscUtils {
              public static void demonstrateBitwiseOps() {
                 System.out.println("\n--- Demonstrating Operator Precedence & Bitwise Ops ---");
@@ -270,6 +713,103 @@ public class CCRM_Application {
                  System.out.println("--------------------------------------\n");
             }
         }
+
+        // Runs full exports from snapshots while writer threads regrade whole students at once (every course
+        // gets the same grade in one commit). A consistent export never shows a student with mixed grades, and
+        // re-reading the same snapshot must reproduce the export byte for byte.
+        public static class SnapshotConsistencyCheck {
+            private static final int STUDENTS = 2_000;
+            private static final int WRITERS = 4;
+
+            public boolean run(long durationMillis) {
+                io.ImportExportService ioService = new io.ImportExportService(new io.InMemoryFileSystem());
+                service.StudentService studentService = new service.StudentService(ioService);
+                service.CourseService courseService = new service.CourseService(ioService);
+                service.EnrollmentService enrollmentService = new service.EnrollmentService(ioService);
+                List<domain.Course> courses;
+                try {
+                    studentService.loadData();
+                    courseService.loadData();
+                    courses = courseService.getAllCourses();
+                    for (int i = 0; i < STUDENTS; i++) {
+                        domain.Student s = new domain.Student(String.format("chk%05d", i), "R" + i, "Check Student " + i, "chk" + i + "@example.com");
+                        studentService.addStudent(s);
+                        for (domain.Course c : courses) enrollmentService.enrollStudent(s, c);
+                    }
+                } catch (Exception e) {
+                    System.err.println("Could not set up snapshot check: " + e.getMessage());
+                    return false;
+                }
+
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(durationMillis);
+                AtomicLong commits = new AtomicLong();
+                AtomicLong violations = new AtomicLong();
+                domain.Grade[] grades = Arrays.stream(domain.Grade.values()).filter(g -> g != domain.Grade.NOT_GRADED).toArray(domain.Grade[]::new);
+                List<Thread> writers = new ArrayList<>();
+                for (int w = 0; w < WRITERS; w++) {
+                    Thread writer = new Thread(() -> {
+                        Random random = new Random();
+                        while (System.nanoTime() < deadline) {
+                            String id = String.format("chk%05d", random.nextInt(STUDENTS));
+                            domain.Grade grade = grades[random.nextInt(grades.length)];
+                            Map<domain.CourseCode, domain.Grade> update = new HashMap<>();
+                            courses.forEach(c -> update.put(c.getCourseCode(), grade));
+                            try {
+                                enrollmentService.recordGrades(id, update);
+                                commits.incrementAndGet();
+                            } catch (exception.EnrollmentNotFoundException e) {
+                                violations.incrementAndGet();
+                            }
+                        }
+                    }, "ccrm-check-writer-" + w);
+                    writer.start();
+                    writers.add(writer);
+                }
+
+                Path exportPath = config.AppConfig.getInstance().getExportsDirectory().resolve("snapshot-check.csv");
+                long exports = 0;
+                long exportNanos = 0;
+                while (System.nanoTime() < deadline) {
+                    try (service.Snapshot snapshot = service.VersionClock.getInstance().openSnapshot()) {
+                        long started = System.nanoTime();
+                        List<domain.EnrollmentRecord> exported = new ArrayList<>();
+                        enrollmentService.forEachRecord(snapshot, exported::add);
+                        ioService.exportEnrollments(exportPath, exported);
+                        exportNanos += System.nanoTime() - started;
+                        exports++;
+                        Map<String, domain.Grade> gradeByStudent = new HashMap<>();
+                        for (domain.EnrollmentRecord e : exported) {
+                            domain.Grade seen = gradeByStudent.putIfAbsent(e.getStudentId(), e.getGrade());
+                            if (seen != null && seen != e.getGrade()) {
+                                violations.incrementAndGet();
+                                System.err.println("Torn read in snapshot " + snapshot.getVersion() + ": " + e.getStudentId() + " has " + seen + " and " + e.getGrade());
+                                break;
+                            }
+                        }
+                        List<domain.EnrollmentRecord> again = new ArrayList<>();
+                        enrollmentService.forEachRecord(snapshot, again::add);
+                        if (exported.size() != STUDENTS * courses.size() || !exported.equals(again)) {
+                            violations.incrementAndGet();
+                            System.err.println("Snapshot " + snapshot.getVersion() + " was not repeatable (" + exported.size() + " vs " + again.size() + " rows)");
+                        }
+                    } catch (RuntimeException | IOException e) {
+                        violations.incrementAndGet();
+                        System.err.println("Export failed: " + e);
+                    }
+                }
+                for (Thread writer : writers) {
+                    try {
+                        writer.join();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                System.out.printf("Snapshot check: %d exports of %d rows (avg %.2f ms) during %d grade commits, %d violations, %d snapshots left open%n",
+                        exports, STUDENTS * courses.size(), exports == 0 ? 0.0 : exportNanos / 1e6 / exports,
+                        commits.get(), violations.get(), service.VersionClock.getInstance().getOpenSnapshotCount());
+                return violations.get() == 0 && exports > 0;
+            }
+        }
     }
     
     public static class io {
@@ -286,12 +826,16 @@ public class CCRM_Application {
                     createDirectory(dataDir);
                     
                     Path studentsCsv = dataDir.resolve("students.csv");
-                    List<String> studentData = List.of(
+                    List<String> studentData = new ArrayList<>(List.of(
                         "id,regNo,fullName,email",
                         "s001,B23001,Alice Johnson,alice@example.com",
                         "s002,B23002,Bob Smith,bob@example.com",
                         "s003,A22105,Charlie Brown,charlie@example.com"
-                    );
+                    ));
+                    // Optional generated roster (s000000, s000001, ...) for load tests and benchmarks.
+                    for (int i = 0; i < config.AppConfig.getInstance().getSyntheticStudents(); i++) {
+                        studentData.add(String.format("s%06d,G%06d,Student %d,s%06d@example.com", i, i, i, i));
+                    }
                     write(studentsCsv, studentData);
 
                     Path coursesCsv = dataDir.resolve("courses.csv");
@@ -311,11 +855,11 @@ public class CCRM_Application {
                     );
                     write(instructorsCsv, instructorData);
                 } catch (IOException e) {
-                    System.err.println("Failed to initialize in-memory file system.");
+                    util.Log.error("io.fs", "Failed to initialize in-memory file system", "error", e.getMessage());
                 }
             }
 
-            public void createDirectory(Path dir) throws FileAlreadyExistsException {
+            public synchronized void createDirectory(Path dir) throws FileAlreadyExistsException {
                 if(directories.containsKey(dir) || files.containsKey(dir)) {
                     throw new FileAlreadyExistsException(dir.toString());
                 }
@@ -326,13 +870,30 @@ public class CCRM_Application {
                 }
             }
             
-            public boolean exists(Path path) { return files.containsKey(path) || directories.containsKey(path); }
-            public boolean isDirectory(Path path) { return directories.containsKey(path); }
-            public Stream<String> lines(Path path) throws IOException {
+            public synchronized void createDirectoryIfAbsent(Path dir) throws FileAlreadyExistsException {
+                if (!directories.containsKey(dir)) createDirectory(dir);
+            }
+
+            public synchronized boolean exists(Path path) { return files.containsKey(path) || directories.containsKey(path); }
+            public synchronized boolean isDirectory(Path path) { return directories.containsKey(path); }
+            public synchronized Stream<String> lines(Path path) throws IOException {
                 if (!exists(path) || isDirectory(path)) throw new IOException("File not found: " + path);
                 return files.get(path).stream();
             }
-            public void write(Path path, Iterable<String> lines) throws IOException {
+            // File contents are replaced, never edited in place, so a captured list is a stable point-in-time view.
+            public synchronized List<String> snapshot(Path path) throws IOException {
+                if (!exists(path) || isDirectory(path)) throw new IOException("File not found: " + path);
+                return Collections.unmodifiableList(files.get(path));
+            }
+            public synchronized Map<Path, List<String>> snapshotDirectory(Path dir) throws IOException {
+                if (!isDirectory(dir)) throw new IOException("Not a directory: " + dir);
+                Map<Path, List<String>> contents = new TreeMap<>();
+                for (Path child : directories.get(dir)) {
+                    if (files.containsKey(child)) contents.put(child, Collections.unmodifiableList(files.get(child)));
+                }
+                return contents;
+            }
+            public synchronized void write(Path path, Iterable<String> lines) throws IOException {
                 List<String> content = new ArrayList<>();
                 lines.forEach(content::add);
                 files.put(path, content);
@@ -341,7 +902,7 @@ public class CCRM_Application {
                     directories.get(parent).add(path);
                 }
             }
-            public void copy(Path source, Path target) throws IOException {
+            public synchronized void copy(Path source, Path target) throws IOException {
                  if (!exists(source)) throw new IOException("Source does not exist: " + source);
                  if (isDirectory(source)) throw new IOException("Copying directories not supported in this simulation");
                  files.put(target, new ArrayList<>(files.get(source)));
@@ -350,67 +911,230 @@ public class CCRM_Application {
                     directories.get(parent).add(target);
                  }
             }
-            public long size(Path path) throws IOException {
+            public synchronized void delete(Path path) throws IOException {
+                if (!files.containsKey(path)) throw new IOException("Cannot delete: " + path);
+                files.remove(path);
+                Path parent = path.getParent();
+                if (parent != null && directories.containsKey(parent)) {
+                    directories.get(parent).remove(path);
+                }
+            }
+            public synchronized void deleteRecursively(Path path) throws IOException {
+                if (files.containsKey(path)) {
+                    delete(path);
+                    return;
+                }
+                if (!directories.containsKey(path)) throw new IOException("Cannot delete: " + path);
+                for (Path child : new ArrayList<>(directories.get(path))) deleteRecursively(child);
+                directories.remove(path);
+                Path parent = path.getParent() == null ? Paths.get("") : path.getParent();
+                if (directories.containsKey(parent)) directories.get(parent).remove(path);
+            }
+            public synchronized long size(Path path) throws IOException {
                 if (!exists(path) || isDirectory(path)) throw new IOException("Cannot get size for: " + path);
                 return files.get(path).stream().mapToLong(String::length).sum();
             }
-            public List<Path> list(Path dir) throws IOException {
+            public synchronized List<Path> list(Path dir) throws IOException {
                 if(!isDirectory(dir)) throw new IOException("Not a directory: " + dir);
                 return new ArrayList<>(directories.get(dir));
             }
         }
         
+        public static final class RecordIndex {
+            public static final RecordIndex EMPTY = new RecordIndex(new String[0], new int[0], List.of());
+            private final String[] keys;
+            private final int[] lines;
+            private final List<String> source;
+
+            private RecordIndex(String[] keys, int[] lines, List<String> source) {
+                this.keys = keys;
+                this.lines = lines;
+                this.source = source;
+            }
+
+            public String line(int lineNumber) { return source.get(lineNumber); }
+
+            public int size() { return keys.length; }
+            public String keyAt(int position) { return keys[position]; }
+            public boolean contains(String key) { return Arrays.binarySearch(keys, key) >= 0; }
+            public int lineAt(int position) { return lines[position]; }
+
+            public int lineOf(String key) {
+                int position = Arrays.binarySearch(keys, key);
+                return position >= 0 ? lines[position] : -1;
+            }
+
+            // Position of the first key strictly greater than the cursor (0 for a null cursor).
+            public int positionAfter(String cursor) {
+                if (cursor == null) return 0;
+                int position = Arrays.binarySearch(keys, cursor);
+                return position >= 0 ? position + 1 : -position - 1;
+            }
+
+            // Sorts keys (with their line numbers) and keeps the last line for duplicate keys, like a reload would.
+            static RecordIndex build(List<String> keys, List<Integer> lines, List<String> source) {
+                Integer[] order = new Integer[keys.size()];
+                for (int i = 0; i < order.length; i++) order[i] = i;
+                boolean sorted = true;
+                for (int i = 1; i < order.length && sorted; i++) sorted = keys.get(i - 1).compareTo(keys.get(i)) < 0;
+                if (!sorted) Arrays.sort(order, Comparator.comparing(keys::get));
+                String[] sortedKeys = new String[order.length];
+                int[] sortedLines = new int[order.length];
+                int size = 0;
+                for (Integer i : order) {
+                    if (size > 0 && sortedKeys[size - 1].equals(keys.get(i))) {
+                        sortedLines[size - 1] = Math.max(sortedLines[size - 1], lines.get(i));
+                        continue;
+                    }
+                    sortedKeys[size] = keys.get(i);
+                    sortedLines[size++] = lines.get(i);
+                }
+                return new RecordIndex(Arrays.copyOf(sortedKeys, size), Arrays.copyOf(sortedLines, size), source);
+            }
+        }
+
         public static class ImportExportService {
             private final InMemoryFileSystem fs;
             public ImportExportService(InMemoryFileSystem fs) { this.fs = fs; }
 
-            public Map<String, domain.Student> importStudents(Path path) throws IOException {
+            public void readStudents(Path path, Consumer<domain.Student> sink) throws IOException {
+                try (Stream<String> lines = fs.lines(path)) {
+                    lines.skip(1).map(this::parseStudentFromCsv).filter(Objects::nonNull).forEach(sink);
+                }
+            }
+
+            public RecordIndex indexStudents(Path path, Predicate<String> includeId) throws IOException {
+                List<String> content = fs.snapshot(path);
+                List<String> keys = new ArrayList<>();
+                List<Integer> lines = new ArrayList<>();
+                for (int lineNumber = 1; lineNumber < content.size(); lineNumber++) {
+                    String line = content.get(lineNumber);
+                    int comma = line.indexOf(',');
+                    if (comma <= 0) continue;
+                    String id = line.substring(0, comma).trim();
+                    if (!includeId.test(id)) continue;
+                    keys.add(id);
+                    lines.add(lineNumber);
+                }
+                return RecordIndex.build(keys, lines, content);
+            }
+
+            public domain.Student readStudentAt(RecordIndex index, int lineNumber) {
+                return parseStudentFromCsv(index.line(lineNumber));
+            }
+
+            public void readInstructors(Path path, Consumer<domain.Instructor> sink) throws IOException {
                 try (Stream<String> lines = fs.lines(path)) {
-                    return lines.skip(1)
-                        .map(this::parseStudentFromCsv)
-                        .filter(Objects::nonNull)
-                        .collect(Collectors.toMap(domain.Student::getId, s -> s));
+                    lines.skip(1).map(this::parseInstructorFromCsv).filter(Objects::nonNull).forEach(sink);
                 }
             }
-             public Map<String, domain.Instructor> importInstructors(Path path) throws IOException {
+
+            public void readCourses(Path path, Map<String, domain.Instructor> instructors, Consumer<domain.Course> sink) throws IOException {
+                AtomicInteger skipped = new AtomicInteger();
                 try (Stream<String> lines = fs.lines(path)) {
-                    return lines.skip(1)
-                        .map(this::parseInstructorFromCsv)
-                        .filter(Objects::nonNull)
-                        .collect(Collectors.toMap(domain.Instructor::getId, i -> i));
+                    lines.skip(1).map(line -> parseCourseFromCsv(line, instructors)).forEach(course -> {
+                        if (course != null) sink.accept(course);
+                        else skipped.incrementAndGet();
+                    });
                 }
+                if (skipped.get() > 0) util.Log.warn("io.csv", "Skipped invalid course rows", "path", path, "count", skipped.get());
             }
 
-            public Map<domain.CourseCode, domain.Course> importCourses(Path path, Map<String, domain.Instructor> instructors) throws IOException {
-                 try (Stream<String> lines = fs.lines(path)) {
-                     return lines.skip(1)
-                        .map(line -> parseCourseFromCsv(line, instructors))
-                        .filter(Objects::nonNull)
-                        .collect(Collectors.toMap(domain.Course::getCourseCode, c -> c));
-                 }
+            public void exportStudents(Path path, Iterable<domain.Student> students) throws IOException {
+                List<String> lines = new ArrayList<>();
+                lines.add(STUDENT_HEADER);
+                students.forEach(s -> lines.add(toCsv(s.toRecord())));
+                fs.write(path, lines);
+            }
+
+            // Removed courses are written as key-only tombstone rows, which compact() drops from the full export.
+            public void exportCourseDelta(Path path, Collection<domain.Course> changed, Collection<domain.CourseCode> removed) throws IOException {
+                List<String> lines = new ArrayList<>(changed.size() + removed.size() + 1);
+                lines.add(COURSE_HEADER);
+                changed.forEach(c -> lines.add(toCsv(c.toRecord())));
+                removed.forEach(code -> lines.add(code.toString()));
+                fs.write(path, lines);
+            }
+
+            public void exportStudentRecords(Path path, Iterable<domain.StudentRecord> students) throws IOException {
+                List<String> lines = new ArrayList<>();
+                lines.add(STUDENT_HEADER);
+                students.forEach(s -> lines.add(toCsv(s)));
+                fs.write(path, lines);
             }
 
-            public void exportStudents(Path path, Collection<domain.Student> students) throws IOException {
+            public void exportCourseRecords(Path path, Iterable<domain.CourseRecord> courses) throws IOException {
                 List<String> lines = new ArrayList<>();
-                lines.add("id,regNo,fullName,email,active");
-                students.forEach(s -> lines.add(String.format("%s,%s,%s,%s,%b",
-                    s.getId(), s.getRegNo(), s.getFullName(), s.getEmail(), s.isActive())));
+                lines.add(COURSE_HEADER);
+                courses.forEach(c -> lines.add(toCsv(c)));
                 fs.write(path, lines);
             }
 
-             public void exportCourses(Path path, Collection<domain.Course> courses) throws IOException {
+            public void exportEnrollments(Path path, Iterable<domain.EnrollmentRecord> enrollments) throws IOException {
                 List<String> lines = new ArrayList<>();
-                lines.add("code,title,credits,semester,instructorId");
-                courses.forEach(c -> lines.add(String.format("%s,%s,%d,%s,%s",
-                    c.getCourseCode().toString(), c.getTitle(), c.getCredits(), c.getSemester(),
-                    c.getInstructor() != null ? c.getInstructor().getId() : "N/A")));
+                lines.add(ENROLLMENT_HEADER);
+                enrollments.forEach(e -> lines.add(String.format("%s,%s,%d,%s", e.getStudentId(), e.getCourseCode(), e.getCredits(), e.getGrade())));
                 fs.write(path, lines);
             }
 
+            public List<Path> listDeltas(Path dir, String deltaPrefix) throws IOException {
+                if (!fs.isDirectory(dir)) return List.of();
+                return fs.list(dir).stream()
+                    .filter(p -> p.getFileName().toString().startsWith(deltaPrefix))
+                    .sorted(Comparator.comparing(p -> p.getFileName().toString()))
+                    .collect(Collectors.toList());
+            }
+
+            // Replays delta files (oldest first) over the full export, keyed by the first CSV column, then removes them.
+            // A delta row with no other columns is a tombstone and removes that key.
+            public int compact(Path fullPath, List<Path> deltas) throws IOException {
+                if (deltas.isEmpty()) return 0;
+                Map<String, String> rows = new LinkedHashMap<>();
+                String header = null;
+                List<Path> sources = new ArrayList<>();
+                if (fs.exists(fullPath)) sources.add(fullPath);
+                sources.addAll(deltas);
+                for (Path source : sources) {
+                    try (Stream<String> lines = fs.lines(source)) {
+                        Iterator<String> it = lines.iterator();
+                        if (!it.hasNext()) continue;
+                        String sourceHeader = it.next();
+                        if (header == null) header = sourceHeader;
+                        while (it.hasNext()) {
+                            String line = it.next();
+                            int comma = line.indexOf(',');
+                            if (comma < 0) rows.remove(line.trim());
+                            else rows.put(line.substring(0, comma), line);
+                        }
+                    }
+                }
+                List<String> merged = new ArrayList<>(rows.size() + 1);
+                merged.add(header);
+                merged.addAll(rows.values());
+                fs.write(fullPath, merged);
+                for (Path delta : deltas) fs.delete(delta);
+                return deltas.size();
+            }
+
+            private static final String STUDENT_HEADER = "id,regNo,fullName,email,active";
+            private static final String COURSE_HEADER = "code,title,credits,semester,instructorId";
+            private static final String ENROLLMENT_HEADER = "studentId,courseCode,credits,grade";
+
+            private static String toCsv(domain.StudentRecord s) {
+                return String.format("%s,%s,%s,%s,%b", s.getId(), s.getRegNo(), s.getFullName(), s.getEmail(), s.isActive());
+            }
+
+            private static String toCsv(domain.CourseRecord c) {
+                return String.format("%s,%s,%d,%s,%s",
+                    c.getCourseCode().toString(), c.getTitle(), c.getCredits(), c.getSemester(), c.getInstructorId());
+            }
+
             private domain.Student parseStudentFromCsv(String line) {
                 String[] parts = line.split(",");
                 if (parts.length < 4) return null;
-                return new domain.Student(parts[0].trim(), parts[1].trim(), parts[2].trim(), parts[3].trim());
+                domain.Student student = new domain.Student(parts[0].trim(), parts[1].trim(), parts[2].trim(), parts[3].trim());
+                if (parts.length > 4) student.setActive(Boolean.parseBoolean(parts[4].trim()));
+                return student;
             }
 
              private domain.Instructor parseInstructorFromCsv(String line) {
@@ -436,57 +1160,370 @@ public class CCRM_Application {
                             .instructor(instructor)
                             .build();
                 } catch (Exception e) {
-                    System.err.println("Skipping invalid course line: " + line);
+                    util.Log.limited(util.Log.Level.WARN, "io.csv.courses.invalid", 5, "io.csv", "Skipping invalid course row",
+                            "line", line, "error", e.getMessage());
                     return null;
                 }
             }
         }
         
+        // Classic token bucket for pacing background I/O: reserve() may overdraw the bucket and the caller then
+        // sleeps off the debt outside the lock, so the configured rate holds on average with bursts up to capacity.
+        public static final class TokenBucket {
+            private final long ratePerSecond;
+            private final long capacity;
+            private double tokens;
+            private long lastRefill = System.nanoTime();
+
+            public TokenBucket(long ratePerSecond, long capacity) {
+                if (ratePerSecond <= 0 || capacity <= 0) throw new IllegalArgumentException("Rate and capacity must be positive");
+                this.ratePerSecond = ratePerSecond;
+                this.capacity = capacity;
+                this.tokens = capacity;
+            }
+
+            // Returns the nanoseconds spent waiting.
+            public long acquire(long permits) throws InterruptedException {
+                long waited = 0;
+                while (permits > 0) {
+                    long chunk = Math.min(permits, capacity);
+                    long wait = reserve(chunk);
+                    if (wait > 0) {
+                        TimeUnit.NANOSECONDS.sleep(wait);
+                        waited += wait;
+                    }
+                    permits -= chunk;
+                }
+                return waited;
+            }
+
+            private synchronized long reserve(long permits) {
+                long now = System.nanoTime();
+                tokens = Math.min(capacity, tokens + (now - lastRefill) * ratePerSecond / 1e9);
+                lastRefill = now;
+                tokens -= permits;
+                return tokens >= 0 ? 0 : (long) (-tokens * 1e9 / ratePerSecond);
+            }
+
+            public long getRatePerSecond() { return ratePerSecond; }
+        }
+
         public static class BackupService {
+            private static final String BACKUP_PREFIX = "backup_";
+            // Millisecond names; the optional part still parses directories from before the suffix was added.
+            private static final DateTimeFormatter STAMP = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss[_SSS]");
+            private static final long THROTTLE_CHUNK = 16 * 1024;
+
+            public static final class BackupResult {
+                private final Path path;
+                private final LocalDateTime takenAt;
+                private final int files;
+                private final long bytes;
+                private final long throttledMillis;
+
+                private BackupResult(Path path, LocalDateTime takenAt, int files, long bytes, long throttledMillis) {
+                    this.path = path;
+                    this.takenAt = takenAt;
+                    this.files = files;
+                    this.bytes = bytes;
+                    this.throttledMillis = throttledMillis;
+                }
+
+                public Path getPath() { return path; }
+                public LocalDateTime getTakenAt() { return takenAt; }
+                public int getFiles() { return files; }
+                public long getBytes() { return bytes; }
+                public long getThrottledMillis() { return throttledMillis; }
+            }
+
             private final InMemoryFileSystem fs;
             private final config.AppConfig appConfig = config.AppConfig.getInstance();
 
             public BackupService(InMemoryFileSystem fs) { this.fs = fs; }
 
-            public void performBackup() {
-                String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
-                Path backupSubDir = appConfig.getBackupDirectory().resolve("backup_" + timestamp);
-                
-                System.out.println("\n>>> Starting backup to " + backupSubDir + "...");
-
-                try {
-                    if (!fs.exists(appConfig.getBackupDirectory())) {
-                         fs.createDirectory(appConfig.getBackupDirectory());
+            // Copies the current exports into backups/backup_<timestamp>. The file list and contents come from one
+            // point-in-time view, and the copy runs outside the file-system lock, paced by the throttle if given,
+            // so foreground exports never wait behind a backup. Returns null when there is nothing to back up.
+            // If the name is already taken, the stamp moves forward a millisecond until it is free.
+            public BackupResult backup(LocalDateTime takenAt, TokenBucket throttle) throws IOException, InterruptedException {
+                Path sourceDir = appConfig.getExportsDirectory();
+                if (!fs.exists(sourceDir) || !fs.isDirectory(sourceDir)) {
+                    util.Log.warn("io.backup", "No export files to backup. Please export data first.");
+                    return null;
+                }
+                long started = System.nanoTime();
+                Map<Path, List<String>> sources = fs.snapshotDirectory(sourceDir);
+                fs.createDirectoryIfAbsent(appConfig.getBackupDirectory());
+                LocalDateTime stamp = takenAt.truncatedTo(ChronoUnit.MILLIS);
+                Path backupSubDir;
+                while (true) {
+                    backupSubDir = appConfig.getBackupDirectory().resolve(BACKUP_PREFIX + stamp.format(STAMP));
+                    try {
+                        fs.createDirectory(backupSubDir);
+                        break;
+                    } catch (FileAlreadyExistsException e) {
+                        stamp = stamp.plus(1, ChronoUnit.MILLIS);
                     }
-                    fs.createDirectory(backupSubDir);
+                }
+                util.Log.info("io.backup", "Starting backup", "target", backupSubDir);
 
-                    Path sourceDir = appConfig.getExportsDirectory();
-                    if(!fs.exists(sourceDir) || !fs.isDirectory(sourceDir)) {
-                        System.out.println("No export files to backup. Please export data first.");
-                        return;
-                    }
-                    
-                    for (Path sourceFile : fs.list(sourceDir)) {
-                         if (!fs.isDirectory(sourceFile)) {
-                            Path targetFile = backupSubDir.resolve(sourceFile.getFileName());
-                            fs.copy(sourceFile, targetFile);
-                            System.out.println("  - Backed up " + sourceFile + " to " + targetFile);
-                         }
+                long bytes = 0;
+                long throttledNanos = 0;
+                for (Map.Entry<Path, List<String>> source : sources.entrySet()) {
+                    List<String> copy = new ArrayList<>(source.getValue().size());
+                    long pending = 0;
+                    for (String line : source.getValue()) {
+                        copy.add(line);
+                        pending += line.length();
+                        if (throttle != null && pending >= THROTTLE_CHUNK) {
+                            throttledNanos += throttle.acquire(pending);
+                            bytes += pending;
+                            pending = 0;
+                        }
                     }
-                    System.out.println(">>> Backup completed successfully.");
-                } catch (IOException e) {
-                    System.err.println("!!! Backup failed: " + e.getMessage());
-                } finally {
-                    System.out.println(">>> Backup process finished.");
+                    if (throttle != null && pending > 0) throttledNanos += throttle.acquire(pending);
+                    bytes += pending;
+                    Path targetFile = backupSubDir.resolve(source.getKey().getFileName());
+                    fs.write(targetFile, copy);
+                    util.Log.debug("io.backup", "Backed up file", "source", source.getKey(), "target", targetFile);
                 }
+                BackupResult result = new BackupResult(backupSubDir, stamp, sources.size(), bytes, TimeUnit.NANOSECONDS.toMillis(throttledNanos));
+                util.Log.info("io.backup", "Backup completed", "target", backupSubDir, "files", sources.size(), "bytes", bytes,
+                        "millis", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started), "throttledMillis", result.getThrottledMillis());
+                return result;
             }
-        }
-    }
 
-    public static class service {
-        public interface Persistable {
+            // Existing backups keyed by the timestamp in their directory name.
+            public NavigableMap<LocalDateTime, Path> listBackups() throws IOException {
+                NavigableMap<LocalDateTime, Path> backups = new TreeMap<>();
+                if (!fs.isDirectory(appConfig.getBackupDirectory())) return backups;
+                for (Path dir : fs.list(appConfig.getBackupDirectory())) {
+                    String name = dir.getFileName().toString();
+                    if (!fs.isDirectory(dir) || !name.startsWith(BACKUP_PREFIX)) continue;
+                    try {
+                        backups.put(LocalDateTime.parse(name.substring(BACKUP_PREFIX.length()), STAMP), dir);
+                    } catch (java.time.format.DateTimeParseException e) {
+                        util.Log.warn("io.backup", "Ignoring unrecognized backup directory", "path", dir);
+                    }
+                }
+                return backups;
+            }
+
+            public void deleteBackup(Path backupDir) throws IOException {
+                fs.deleteRecursively(backupDir);
+                util.Log.debug("io.backup", "Pruned backup", "path", backupDir);
+            }
+        }
+
+        // Runs backups on one low-priority background thread: every interval, or on demand via runNow(). Copies are
+        // throttled by a token bucket, and after each backup a retention policy keeps the newest backup of each of
+        // the last N hours and M days. Backups are indexed by timestamp once at start, so pruning never rescans.
+        public static class BackupScheduler {
+            public static final class Status {
+                private final boolean running;
+                private final long runs;
+                private final LocalDateTime lastStartedAt;
+                private final long lastDurationMillis;
+                private final String lastOutcome;
+                private final BackupService.BackupResult lastBackup;
+                private final int lastPruned;
+                private final String lastError;
+                private final LocalDateTime nextRunAt;
+                private final int retained;
+
+                private Status(boolean running, long runs, LocalDateTime lastStartedAt, long lastDurationMillis, String lastOutcome,
+                               BackupService.BackupResult lastBackup, int lastPruned, String lastError, LocalDateTime nextRunAt, int retained) {
+                    this.running = running;
+                    this.runs = runs;
+                    this.lastStartedAt = lastStartedAt;
+                    this.lastDurationMillis = lastDurationMillis;
+                    this.lastOutcome = lastOutcome;
+                    this.lastBackup = lastBackup;
+                    this.lastPruned = lastPruned;
+                    this.lastError = lastError;
+                    this.nextRunAt = nextRunAt;
+                    this.retained = retained;
+                }
+
+                public boolean isRunning() { return running; }
+                public long getRuns() { return runs; }
+                public LocalDateTime getLastStartedAt() { return lastStartedAt; }
+                public long getLastDurationMillis() { return lastDurationMillis; }
+                public String getLastOutcome() { return lastOutcome; }
+                public BackupService.BackupResult getLastBackup() { return lastBackup; }
+                public int getLastPruned() { return lastPruned; }
+                public String getLastError() { return lastError; }
+                public LocalDateTime getNextRunAt() { return nextRunAt; }
+                public int getRetained() { return retained; }
+            }
+
+            private final BackupService backupService;
+            private final TokenBucket throttle;
+            private final long intervalSeconds;
+            private final int keepHourly;
+            private final int keepDaily;
+            private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "ccrm-backup");
+                t.setDaemon(true);
+                t.setPriority(Thread.MIN_PRIORITY);
+                return t;
+            });
+            // Only touched on the backup thread.
+            private NavigableMap<LocalDateTime, Path> backups;
+            private volatile Status status = new Status(false, 0, null, 0, null, null, 0, null, null, 0);
+
+            public BackupScheduler(BackupService backupService) {
+                config.AppConfig appConfig = config.AppConfig.getInstance();
+                this.backupService = backupService;
+                this.intervalSeconds = appConfig.getBackupIntervalSeconds();
+                this.keepHourly = appConfig.getBackupKeepHourly();
+                this.keepDaily = appConfig.getBackupKeepDaily();
+                long rate = appConfig.getBackupBytesPerSecond();
+                this.throttle = rate > 0 ? new TokenBucket(rate, Math.max(16 * 1024, rate / 10)) : null;
+            }
+
+            // An interval of 0 leaves only on-demand backups.
+            public void start() {
+                if (intervalSeconds <= 0) return;
+                status = withNextRun(LocalDateTime.now().plusSeconds(intervalSeconds));
+                executor.scheduleWithFixedDelay(() -> {
+                    runOnce();
+                    status = withNextRun(LocalDateTime.now().plusSeconds(intervalSeconds));
+                }, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+            }
+
+            public Future<?> runNow() { return executor.submit(this::runOnce); }
+
+            public void stop() { executor.shutdownNow(); }
+
+            public Status getStatus() { return status; }
+
+            public long getIntervalSeconds() { return intervalSeconds; }
+            public long getBytesPerSecond() { return throttle != null ? throttle.getRatePerSecond() : 0; }
+            public int getKeepHourly() { return keepHourly; }
+            public int getKeepDaily() { return keepDaily; }
+
+            private void runOnce() {
+                Status previous = status;
+                LocalDateTime startedAt = LocalDateTime.now();
+                status = new Status(true, previous.runs, previous.lastStartedAt, previous.lastDurationMillis, previous.lastOutcome,
+                        previous.lastBackup, previous.lastPruned, previous.lastError, previous.nextRunAt, previous.retained);
+                long started = System.nanoTime();
+                String outcome;
+                String error = null;
+                BackupService.BackupResult result = null;
+                int pruned = 0;
+                try {
+                    if (backups == null) backups = backupService.listBackups();
+                    result = backupService.backup(startedAt, throttle);
+                    if (result != null) {
+                        backups.put(result.getTakenAt(), result.getPath());
+                        pruned = prune();
+                    }
+                    outcome = result != null ? "ok" : "skipped";
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    outcome = "interrupted";
+                } catch (IOException | RuntimeException e) {
+                    outcome = "failed";
+                    error = e.getClass().getSimpleName() + ": " + e.getMessage();
+                    util.Log.error("io.backup", "Scheduled backup failed", "error", error);
+                }
+                status = new Status(false, previous.runs + 1, startedAt, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started),
+                        outcome, result != null ? result : previous.lastBackup, pruned, error, status.nextRunAt,
+                        backups != null ? backups.size() : 0);
+            }
+
+            private int prune() throws IOException {
+                Set<LocalDateTime> keep = retained(backups.navigableKeySet(), keepHourly, keepDaily);
+                int pruned = 0;
+                for (Iterator<Map.Entry<LocalDateTime, Path>> it = backups.entrySet().iterator(); it.hasNext(); ) {
+                    Map.Entry<LocalDateTime, Path> backup = it.next();
+                    if (keep.contains(backup.getKey())) continue;
+                    backupService.deleteBackup(backup.getValue());
+                    it.remove();
+                    pruned++;
+                }
+                if (pruned > 0) util.Log.info("io.backup", "Pruned old backups", "count", pruned, "retained", backups.size());
+                return pruned;
+            }
+
+            // Newest-first walk: the first backup seen in a new hour (or day) is the newest of that hour (or day).
+            static Set<LocalDateTime> retained(NavigableSet<LocalDateTime> stamps, int keepHourly, int keepDaily) {
+                Set<LocalDateTime> keep = new HashSet<>();
+                LocalDateTime lastHour = null;
+                LocalDate lastDay = null;
+                int hours = 0;
+                int days = 0;
+                for (LocalDateTime stamp : stamps.descendingSet()) {
+                    if (keep.isEmpty()) keep.add(stamp);
+                    LocalDateTime hour = stamp.truncatedTo(ChronoUnit.HOURS);
+                    if (hours < keepHourly && !hour.equals(lastHour)) {
+                        keep.add(stamp);
+                        lastHour = hour;
+                        hours++;
+                    }
+                    if (days < keepDaily && !stamp.toLocalDate().equals(lastDay)) {
+                        keep.add(stamp);
+                        lastDay = stamp.toLocalDate();
+                        days++;
+                    }
+                    if (hours >= keepHourly && days >= keepDaily) break;
+                }
+                return keep;
+            }
+
+            private Status withNextRun(LocalDateTime nextRunAt) {
+                Status s = status;
+                return new Status(s.running, s.runs, s.lastStartedAt, s.lastDurationMillis, s.lastOutcome, s.lastBackup,
+                        s.lastPruned, s.lastError, nextRunAt, s.retained);
+            }
+        }
+    }
+
+    public static class service {
+        public interface Persistable {
             void loadData() throws IOException;
-            void saveData() throws IOException;
+            void saveData(Snapshot snapshot) throws IOException;
+
+            default void saveData() throws IOException {
+                try (Snapshot snapshot = VersionClock.getInstance().openSnapshot()) {
+                    saveData(snapshot);
+                }
+            }
+        }
+
+        public static final class ReloadReport {
+            private int added, updated, unchanged, retired, conflicts;
+            // Students updated or retired by a student reload, so per-student caches can drop exactly those.
+            private final Set<String> changedIds = new HashSet<>();
+
+            public int getAdded() { return added; }
+            public int getUpdated() { return updated; }
+            public int getUnchanged() { return unchanged; }
+            public int getRetired() { return retired; }
+            public int getConflicts() { return conflicts; }
+            public Set<String> getChangedIds() { return Collections.unmodifiableSet(changedIds); }
+
+            // Key/value pairs for a structured log event, after any leading pairs.
+            public Object[] toLogFields(Object... leading) {
+                Object[] fields = Arrays.copyOf(leading, leading.length + 10);
+                System.arraycopy(new Object[] {"added", added, "updated", updated, "unchanged", unchanged,
+                        "retired", retired, "conflicts", conflicts}, 0, fields, leading.length, 10);
+                return fields;
+            }
+
+            @Override
+            public String toString() {
+                return String.format("%d added, %d updated, %d unchanged, %d retired%s",
+                        added, updated, unchanged, retired, conflicts > 0 ? ", " + conflicts + " conflicts" : "");
+            }
+        }
+
+        public interface DeltaPersistable extends Persistable {
+            long saveDelta(long sinceSeq) throws IOException;
+            int compactDeltas() throws IOException;
+            long getExportedSequence();
         }
 
         public interface Searchable<T> {
@@ -500,37 +1537,686 @@ public class CCRM_Application {
              }
         }
         
-        public static class StudentService implements Persistable {
-            private final Map<String, domain.Student> students = new HashMap<>();
+        public static final class Page<T> {
+            private final List<T> items;
+            private final String nextCursor;
+
+            public Page(List<T> items, String nextCursor) {
+                this.items = items;
+                this.nextCursor = nextCursor;
+            }
+
+            public List<T> getItems() { return items; }
+            public String getNextCursor() { return nextCursor; }
+            public boolean hasMore() { return nextCursor != null; }
+        }
+
+        // Orders writes into versions. Writers serialize on a reentrant commit lock (nested commits join the
+        // outer one); readers never take it: a snapshot just registers the last committed version.
+        public static final class VersionClock {
+            private static final VersionClock INSTANCE = new VersionClock();
+            private final ReentrantLock commitLock = new ReentrantLock();
+            private final ConcurrentSkipListMap<Long, Integer> openSnapshots = new ConcurrentSkipListMap<>();
+            // Change-tracker sequence as of the committed version, so a snapshot export knows which dirty marks it covers.
+            private volatile long[] committedAt = {0, 0};
+            private long pending;
+
+            private VersionClock() {}
+
+            public static VersionClock getInstance() { return INSTANCE; }
+
+            public long beginCommit() {
+                commitLock.lock();
+                if (commitLock.getHoldCount() == 1) pending = committedAt[0] + 1;
+                return pending;
+            }
+
+            public void endCommit() {
+                if (commitLock.getHoldCount() == 1) committedAt = new long[] {pending, domain.ChangeTracker.currentSequence()};
+                commitLock.unlock();
+            }
+
+            long writeVersion() {
+                if (!commitLock.isHeldByCurrentThread()) throw new IllegalStateException("Write outside of a commit");
+                return pending;
+            }
+
+            public long currentVersion() { return committedAt[0]; }
+
+            // Same cut a snapshot opened now would carry: every dirty mark at or below it is already in its log.
+            public long committedChangeSequence() { return committedAt[1]; }
+
+            public Snapshot openSnapshot() {
+                while (true) {
+                    long[] at = committedAt;
+                    long version = at[0];
+                    openSnapshots.merge(version, 1, Integer::sum);
+                    // If a commit landed meanwhile, a writer may already have pruned past this version.
+                    if (committedAt == at) return new Snapshot(this, version, at[1]);
+                    release(version);
+                }
+            }
+
+            void release(long version) {
+                openSnapshots.computeIfPresent(version, (v, count) -> count == 1 ? null : count - 1);
+            }
+
+            // Versions at or below this one that are shadowed by a newer version at or below it can be dropped.
+            long oldestNeeded() {
+                Map.Entry<Long, Integer> oldest = openSnapshots.firstEntry();
+                long committed = committedAt[0];
+                return oldest == null ? committed : Math.min(oldest.getKey(), committed);
+            }
+
+            public int getOpenSnapshotCount() {
+                return openSnapshots.values().stream().mapToInt(Integer::intValue).sum();
+            }
+        }
+
+        public static final class Snapshot implements AutoCloseable {
+            private final VersionClock clock;
+            private final long version;
+            private final long changeSequence;
+            private boolean closed;
+
+            private Snapshot(VersionClock clock, long version, long changeSequence) {
+                this.clock = clock;
+                this.version = version;
+                this.changeSequence = changeSequence;
+            }
+
+            public long getVersion() { return version; }
+            public long getChangeSequence() { return changeSequence; }
+
+            @Override
+            public synchronized void close() {
+                if (!closed) {
+                    closed = true;
+                    clock.release(version);
+                }
+            }
+        }
+
+        // Multi-version map of immutable values: each key heads a newest-first chain of versions, so a snapshot
+        // reads the newest entry at or below its version without locking. A null value is a delete (tombstone).
+        public static final class VersionedMap<K, V> {
+            private static final class Version<V> {
+                private final long version;
+                private final V value;
+                private volatile Version<V> older;
+
+                Version(long version, V value, Version<V> older) {
+                    this.version = version;
+                    this.value = value;
+                    this.older = older;
+                }
+            }
+
+            private final ConcurrentSkipListMap<K, Version<V>> heads;
+            private final VersionClock clock;
+
+            public VersionedMap(VersionClock clock) {
+                this.clock = clock;
+                this.heads = new ConcurrentSkipListMap<>();
+            }
+
+            // Must be called inside a commit; a second write to a key in the same commit replaces the first.
+            public void put(K key, V value) {
+                long version = clock.writeVersion();
+                long oldestNeeded = clock.oldestNeeded();
+                heads.compute(key, (k, head) -> {
+                    Version<V> older = head != null && head.version == version ? head.older : head;
+                    if (older == null && value == null) return null;
+                    Version<V> fresh = new Version<>(version, value, older);
+                    for (Version<V> v = older; v != null; v = v.older) {
+                        if (v.version <= oldestNeeded) {
+                            v.older = null;
+                            break;
+                        }
+                    }
+                    return fresh;
+                });
+            }
+
+            public void remove(K key) { put(key, null); }
+
+            public V get(K key) { return get(key, clock.currentVersion()); }
+
+            public V get(K key, long version) {
+                return visible(heads.get(key), version);
+            }
+
+            public void forEach(long version, BiConsumer<K, V> action) {
+                forEach(heads, version, action);
+            }
+
+            public void forEachInRange(K from, K toExclusive, long version, BiConsumer<K, V> action) {
+                forEach(heads.subMap(from, true, toExclusive, false), version, action);
+            }
+
+            public Iterator<Map.Entry<K, V>> entries(long version) {
+                Iterator<Map.Entry<K, Version<V>>> it = heads.entrySet().iterator();
+                return new Iterator<>() {
+                    private Map.Entry<K, V> next = advance();
+
+                    private Map.Entry<K, V> advance() {
+                        while (it.hasNext()) {
+                            Map.Entry<K, Version<V>> e = it.next();
+                            V value = visible(e.getValue(), version);
+                            if (value != null) return new AbstractMap.SimpleImmutableEntry<>(e.getKey(), value);
+                        }
+                        return null;
+                    }
+
+                    @Override
+                    public boolean hasNext() { return next != null; }
+
+                    @Override
+                    public Map.Entry<K, V> next() {
+                        if (next == null) throw new NoSuchElementException();
+                        Map.Entry<K, V> current = next;
+                        next = advance();
+                        return current;
+                    }
+                };
+            }
+
+            private static <K, V> void forEach(Map<K, Version<V>> chains, long version, BiConsumer<K, V> action) {
+                chains.forEach((key, head) -> {
+                    V value = visible(head, version);
+                    if (value != null) action.accept(key, value);
+                });
+            }
+
+            private static <V> V visible(Version<V> head, long version) {
+                for (Version<V> v = head; v != null; v = v.older) {
+                    if (v.version <= version) return v.value;
+                }
+                return null;
+            }
+        }
+
+        // Archive-scale student storage: only a sorted id -> line index stays resident, and Student objects are
+        // parsed on demand. An LRU cache bounds the working set; a weak canonical map guarantees at most one live
+        // object per id (so Enrollments and callers always share it); changed or added students are pinned.
+        public static class LazyStudentStore {
+            private static final class StudentRef extends WeakReference<domain.Student> {
+                private final String id;
+
+                StudentRef(domain.Student student, ReferenceQueue<domain.Student> queue) {
+                    super(student, queue);
+                    this.id = student.getId();
+                }
+            }
+
+            private final io.ImportExportService ioService;
+            private final Path path;
+            private final Consumer<domain.Student> onHydrate;
+            private final Consumer<String> markDirty;
+            private final int capacity;
+            private final LinkedHashMap<String, domain.Student> cache;
+            private final Map<String, StudentRef> live = new ConcurrentHashMap<>();
+            private final ReferenceQueue<domain.Student> collected = new ReferenceQueue<>();
+            private final ConcurrentSkipListMap<String, domain.Student> pinned = new ConcurrentSkipListMap<>();
+            private final AtomicLong hydrations = new AtomicLong();
+            private final ConcurrentSkipListMap<Long, io.RecordIndex> indexHistory = new ConcurrentSkipListMap<>();
+            private volatile io.RecordIndex index = io.RecordIndex.EMPTY;
+
+            // markDirty records a change for students that are not in memory; it is only called inside a commit.
+            public LazyStudentStore(io.ImportExportService ioService, Path path, int capacity, Consumer<domain.Student> onHydrate,
+                                    Consumer<String> markDirty) {
+                this.ioService = ioService;
+                this.path = path;
+                this.capacity = capacity;
+                this.onHydrate = onHydrate;
+                this.markDirty = markDirty;
+                this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, domain.Student> eldest) {
+                        return size() > LazyStudentStore.this.capacity;
+                    }
+                };
+                indexHistory.put(0L, index);
+            }
+
+            public domain.Student get(String id) throws IOException {
+                domain.Student s = peek(id);
+                if (s != null && !pinned.containsKey(id)) {
+                    synchronized (cache) { cache.put(id, s); }
+                }
+                return s;
+            }
+
+            // Like get(), but leaves the LRU cache untouched so full scans don't flush the working set.
+            private domain.Student peek(String id) throws IOException {
+                domain.Student s = pinned.get(id);
+                if (s != null) return s;
+                synchronized (cache) {
+                    s = cache.get(id);
+                }
+                if (s != null) return s;
+                s = liveInstance(id);
+                if (s != null) return s;
+                int line = index.lineOf(id);
+                if (line < 0) return null;
+                domain.Student fresh = ioService.readStudentAt(index, line);
+                if (fresh == null) return null;
+                hydrations.incrementAndGet();
+                onHydrate.accept(fresh);
+                return canonicalize(fresh);
+            }
+
+            public void pin(domain.Student s) { pinned.put(s.getId(), s); }
+
+            // Keeps the in-memory version over a conflicting file row: the change listener pins it and publishes
+            // its record, so lookups and snapshots both ignore the new row.
+            private void keep(domain.Student s) {
+                pin(s);
+                s.markChanged();
+            }
+
+            public boolean contains(String id) { return pinned.containsKey(id) || index.contains(id); }
+
+            public int size() {
+                io.RecordIndex current = index;
+                return current.size() + (int) pinned.keySet().stream().filter(id -> !current.contains(id)).count();
+            }
+
+            public Page<domain.Student> page(String cursor, int pageSize) throws IOException {
+                List<String> ids = idsAfter(cursor, pageSize + 1);
+                List<domain.Student> items = new ArrayList<>(Math.min(pageSize, ids.size()));
+                for (int i = 0; i < ids.size() && i < pageSize; i++) {
+                    domain.Student s = get(ids.get(i));
+                    if (s != null) items.add(s);
+                }
+                return new Page<>(items, ids.size() > pageSize ? ids.get(pageSize - 1) : null);
+            }
+
+            public void forEach(Consumer<domain.Student> action) throws IOException {
+                String cursor = null;
+                List<String> ids;
+                do {
+                    ids = idsAfter(cursor, 1024);
+                    for (String id : ids) {
+                        domain.Student s = peek(id);
+                        if (s != null) action.accept(s);
+                    }
+                    if (!ids.isEmpty()) cursor = ids.get(ids.size() - 1);
+                } while (ids.size() == 1024);
+            }
+
+            // Merges the file index with pinned (added/changed) ids in sorted order.
+            private List<String> idsAfter(String cursor, int limit) {
+                io.RecordIndex current = index;
+                Iterator<String> extra = (cursor == null ? pinned.keySet() : pinned.tailMap(cursor, false).keySet()).iterator();
+                String nextExtra = extra.hasNext() ? extra.next() : null;
+                int position = current.positionAfter(cursor);
+                List<String> ids = new ArrayList<>(limit);
+                while (ids.size() < limit && (position < current.size() || nextExtra != null)) {
+                    String fromIndex = position < current.size() ? current.keyAt(position) : null;
+                    int cmp = fromIndex == null ? 1 : nextExtra == null ? -1 : fromIndex.compareTo(nextExtra);
+                    if (cmp <= 0) {
+                        ids.add(fromIndex);
+                        position++;
+                        if (cmp == 0) nextExtra = extra.hasNext() ? extra.next() : null;
+                    } else {
+                        ids.add(nextExtra);
+                        nextExtra = extra.hasNext() ? extra.next() : null;
+                    }
+                }
+                return ids;
+            }
+
+            // Swaps in a fresh index for the (already replaced) source file and reconciles objects that are still
+            // in memory. Students that were never materialized are diffed line by line against the previous index:
+            // adds and real updates are marked dirty, a changed regNo keeps the previous version as a conflict, and
+            // students dropped from the file are hydrated from the previous index and pinned as inactive, as in
+            // eager mode.
+            public ReloadReport reload(ReloadReport report, boolean markAdds) throws IOException {
+                io.RecordIndex previous = index;
+                io.RecordIndex fresh = ioService.indexStudents(path, config.AppConfig.getInstance()::ownsStudent);
+                VersionClock clock = VersionClock.getInstance();
+                clock.beginCommit();
+                try {
+                    index = fresh;
+                    indexHistory.put(clock.writeVersion(), fresh);
+                    Long needed = indexHistory.floorKey(clock.oldestNeeded());
+                    if (needed != null) indexHistory.headMap(needed).clear();
+                    // Taken after the swap, so students hydrated from now on already come from the fresh index.
+                    Map<String, domain.Student> resident = residentStudents();
+                    for (int i = 0; i < fresh.size(); i++) {
+                        String id = fresh.keyAt(i);
+                        int before = previous.lineOf(id);
+                        if (before < 0) {
+                            report.added++;
+                            if (markAdds) markDirty.accept(id);
+                            continue;
+                        }
+                        // Resident students are reconciled against their objects below.
+                        if (resident.containsKey(id) || previous.line(before).equals(fresh.line(fresh.lineAt(i)))) continue;
+                        domain.Student old = ioService.readStudentAt(previous, before);
+                        domain.Student incoming = ioService.readStudentAt(fresh, fresh.lineAt(i));
+                        if (old == null || incoming == null) continue;
+                        if (!old.getRegNo().equals(incoming.getRegNo())) {
+                            onHydrate.accept(old);
+                            keep(canonicalize(old));
+                            report.conflicts++;
+                        } else if (old.updateFrom(incoming)) {
+                            report.updated++;
+                            report.changedIds.add(id);
+                            markDirty.accept(id);
+                        }
+                    }
+                    // Everything below shares the swap's commit, so no snapshot sees a dropped student vanish before
+                    // it is retired, or a resident student's new row before its object is reconciled.
+                    for (int i = 0; i < previous.size(); i++) {
+                        String id = previous.keyAt(i);
+                        if (fresh.contains(id) || resident.containsKey(id)) continue;
+                        domain.Student dropped = ioService.readStudentAt(previous, previous.lineAt(i));
+                        if (dropped == null) continue;
+                        onHydrate.accept(dropped);
+                        dropped = canonicalize(dropped);
+                        if (dropped.isActive()) {
+                            report.retired++;
+                            report.changedIds.add(id);
+                        }
+                        dropped.setActive(false);
+                        pin(dropped);
+                    }
+                    for (domain.Student current : resident.values()) {
+                        int line = fresh.lineOf(current.getId());
+                        domain.Student incoming = line < 0 ? null : ioService.readStudentAt(fresh, line);
+                        if (incoming == null) {
+                            if (current.isActive()) {
+                                current.setActive(false);
+                                pin(current);
+                                report.retired++;
+                                report.changedIds.add(current.getId());
+                            }
+                        } else if (!current.getRegNo().equals(incoming.getRegNo())) {
+                            keep(current);
+                            report.conflicts++;
+                        } else if (current.updateFrom(incoming)) {
+                            report.updated++;
+                            report.changedIds.add(current.getId());
+                        }
+                    }
+                } finally {
+                    clock.endCommit();
+                }
+                report.unchanged = Math.max(0, fresh.size() - report.added - report.updated - report.conflicts);
+                return report;
+            }
+
+            // Students as of a snapshot: the file index current at that version, overridden by the versioned
+            // records of students changed in memory. Parses lines directly and never hydrates or caches.
+            public void forEachRecord(long version, VersionedMap<String, domain.StudentRecord> changed,
+                                      Consumer<domain.StudentRecord> action) {
+                io.RecordIndex base = indexHistory.floorEntry(version).getValue();
+                Iterator<Map.Entry<String, domain.StudentRecord>> overrides = changed.entries(version);
+                Map.Entry<String, domain.StudentRecord> override = overrides.hasNext() ? overrides.next() : null;
+                int position = 0;
+                while (position < base.size() || override != null) {
+                    String key = position < base.size() ? base.keyAt(position) : null;
+                    int cmp = key == null ? 1 : override == null ? -1 : key.compareTo(override.getKey());
+                    if (cmp < 0) {
+                        domain.Student s = ioService.readStudentAt(base, base.lineAt(position));
+                        if (s != null) action.accept(s.toRecord());
+                        position++;
+                    } else {
+                        action.accept(override.getValue());
+                        if (cmp == 0) position++;
+                        override = overrides.hasNext() ? overrides.next() : null;
+                    }
+                }
+            }
+
+            public long getHydrationCount() { return hydrations.get(); }
+
+            public int getCachedCount() {
+                synchronized (cache) { return cache.size(); }
+            }
+
+            private Map<String, domain.Student> residentStudents() {
+                Map<String, domain.Student> resident = new HashMap<>(pinned);
+                purgeCollected();
+                live.forEach((id, ref) -> {
+                    domain.Student s = ref.get();
+                    if (s != null) resident.putIfAbsent(id, s);
+                });
+                return resident;
+            }
+
+            private domain.Student liveInstance(String id) {
+                purgeCollected();
+                StudentRef ref = live.get(id);
+                return ref == null ? null : ref.get();
+            }
+
+            private domain.Student canonicalize(domain.Student fresh) {
+                while (true) {
+                    StudentRef existing = live.get(fresh.getId());
+                    domain.Student current = existing == null ? null : existing.get();
+                    if (current != null) return current;
+                    StudentRef mine = new StudentRef(fresh, collected);
+                    boolean installed = existing == null
+                        ? live.putIfAbsent(fresh.getId(), mine) == null
+                        : live.replace(fresh.getId(), existing, mine);
+                    if (installed) return fresh;
+                }
+            }
+
+            private void purgeCollected() {
+                for (java.lang.ref.Reference<? extends domain.Student> r; (r = collected.poll()) != null; ) {
+                    StudentRef ref = (StudentRef) r;
+                    live.remove(ref.id, ref);
+                }
+            }
+        }
+
+        public static class StudentService implements DeltaPersistable {
+            private static final String DELTA_PREFIX = "students.delta-";
+            private final ConcurrentSkipListMap<String, domain.Student> students = new ConcurrentSkipListMap<>();
+            private final VersionClock clock = VersionClock.getInstance();
+            // Immutable per-version copies for snapshot readers; in lazy mode only students changed in memory.
+            private final VersionedMap<String, domain.StudentRecord> records = new VersionedMap<>(clock);
+            private final domain.ChangeTracker<String> changeTracker = new domain.ChangeTracker<>();
+            private volatile long exportedSequence;
+            // The first load is the baseline exports start from; students added by later reloads are changes.
+            private volatile boolean loaded;
             private final io.ImportExportService ioService;
              private final config.AppConfig appConfig = config.AppConfig.getInstance();
+            private final LazyStudentStore lazyStore;
 
             public StudentService(io.ImportExportService ioService) {
                 this.ioService = ioService;
+                this.lazyStore = appConfig.isLazyStudentLoading()
+                    ? new LazyStudentStore(ioService, appConfig.getDataDirectory().resolve("students.csv"),
+                                           appConfig.getStudentCacheSize(), this::track, changeTracker::markDirty)
+                    : null;
             }
 
             @Override
             public void loadData() throws IOException {
+                ReloadReport report = reload();
+                util.Log.info("service.students", "Loaded students",
+                        report.toLogFields("count", getStudentCount(), "mode", lazyStore != null ? "lazy" : "eager"));
+            }
+
+            public boolean isLazy() { return lazyStore != null; }
+
+            // Upserts the source file into the live map: existing Student objects (and the Enrollments that
+            // reference them) are updated in place, and students missing from the file are retired as inactive.
+            public ReloadReport reload() throws IOException {
                 Path studentsPath = appConfig.getDataDirectory().resolve("students.csv");
-                students.clear();
-                students.putAll(ioService.importStudents(studentsPath));
-                System.out.println("Loaded " + students.size() + " students.");
+                ReloadReport report = new ReloadReport();
+                boolean markAdds = loaded;
+                if (lazyStore != null) {
+                    lazyStore.reload(report, markAdds);
+                    loaded = true;
+                    return report;
+                }
+                Set<String> seen = new HashSet<>();
+                ioService.readStudents(studentsPath, incoming -> {
+                    if (!appConfig.ownsStudent(incoming.getId())) return;
+                    seen.add(incoming.getId());
+                    domain.Student current = students.get(incoming.getId());
+                    if (current == null) {
+                        track(incoming);
+                        students.put(incoming.getId(), incoming);
+                        publish(incoming, markAdds);
+                        report.added++;
+                    } else if (!current.getRegNo().equals(incoming.getRegNo())) {
+                        util.Log.limited(util.Log.Level.WARN, "service.students.regNoConflict", 5, "service.students",
+                                "Skipping reload of student: registration number changed",
+                                "id", incoming.getId(), "from", current.getRegNo(), "to", incoming.getRegNo());
+                        report.conflicts++;
+                    } else if (current.updateFrom(incoming)) {
+                        report.updated++;
+                        report.changedIds.add(current.getId());
+                    } else {
+                        report.unchanged++;
+                    }
+                });
+                for (domain.Student s : students.values()) {
+                    if (s.isActive() && !seen.contains(s.getId())) {
+                        s.setActive(false);
+                        report.retired++;
+                        report.changedIds.add(s.getId());
+                    }
+                }
+                loaded = true;
+                return report;
+            }
+
+            @Override
+            public void saveData(Snapshot snapshot) throws IOException {
+                long through = snapshot.getChangeSequence();
+                ioService.fs.createDirectoryIfAbsent(appConfig.getExportsDirectory());
+                Path studentsPath = appConfig.getExportsDirectory().resolve("students.csv");
+                List<domain.StudentRecord> all = new ArrayList<>();
+                forEachRecord(snapshot, all::add);
+                ioService.exportStudentRecords(studentsPath, all);
+                for (Path delta : ioService.listDeltas(appConfig.getExportsDirectory(), DELTA_PREFIX)) ioService.fs.delete(delta);
+                changeTracker.prune(through);
+                exportedSequence = through;
+                util.Log.info("service.students", "Exported students", "count", all.size(), "path", studentsPath, "version", snapshot.getVersion());
             }
 
             @Override
-            public void saveData() throws IOException {
-                 if (!ioService.fs.exists(appConfig.getExportsDirectory())) {
-                    ioService.fs.createDirectory(appConfig.getExportsDirectory());
+            public long saveDelta(long sinceSeq) throws IOException {
+                long through = clock.committedChangeSequence();
+                List<domain.Student> changed = new ArrayList<>();
+                for (String id : changeTracker.changedSince(sinceSeq, through)) {
+                    findStudentById(id).ifPresent(changed::add);
+                }
+                if (!changed.isEmpty()) {
+                    ioService.fs.createDirectoryIfAbsent(appConfig.getExportsDirectory());
+                    Path deltaPath = appConfig.getExportsDirectory().resolve(String.format("%s%012d.csv", DELTA_PREFIX, through));
+                    ioService.exportStudents(deltaPath, changed);
+                    util.Log.info("service.students", "Exported changed students", "count", changed.size(), "path", deltaPath);
+                } else {
+                    util.Log.info("service.students", "No student changes", "since", sinceSeq);
                 }
+                exportedSequence = through;
+                return through;
+            }
+
+            @Override
+            public int compactDeltas() throws IOException {
                 Path studentsPath = appConfig.getExportsDirectory().resolve("students.csv");
-                ioService.exportStudents(studentsPath, students.values());
-                System.out.println("Exported " + students.size() + " students to " + studentsPath);
+                int merged = ioService.compact(studentsPath, ioService.listDeltas(appConfig.getExportsDirectory(), DELTA_PREFIX));
+                changeTracker.prune(exportedSequence);
+                util.Log.info("service.students", "Compacted student deltas", "files", merged, "path", studentsPath);
+                return merged;
+            }
+
+            @Override
+            public long getExportedSequence() { return exportedSequence; }
+            public int getDirtyCount() { return changeTracker.dirtyCount(); }
+
+            private void track(domain.Student s) {
+                s.setChangeListener(() -> {
+                    if (lazyStore != null) lazyStore.pin(s);
+                    publish(s, true);
+                });
+            }
+
+            // The record is taken inside the commit, so the last commit for a student always carries its latest state.
+            private void publish(domain.Student s, boolean dirty) {
+                clock.beginCommit();
+                try {
+                    if (dirty) changeTracker.markDirty(s.getId());
+                    records.put(s.getId(), s.toRecord());
+                } finally {
+                    clock.endCommit();
+                }
+            }
+
+            public void addStudent(domain.Student s) {
+                track(s);
+                if (lazyStore != null) lazyStore.pin(s);
+                else students.put(s.getId(), s);
+                publish(s, true);
+            }
+
+            public Optional<domain.Student> findStudentById(String id) {
+                if (lazyStore == null) return Optional.ofNullable(students.get(id));
+                try {
+                    return Optional.ofNullable(lazyStore.get(id));
+                } catch (IOException e) {
+                    util.Log.error("service.students", "Could not load student", "id", id, "error", e.getMessage());
+                    return Optional.empty();
+                }
             }
 
-            public void addStudent(domain.Student s) { students.put(s.getId(), s); }
-            public Optional<domain.Student> findStudentById(String id) { return Optional.ofNullable(students.get(id)); }
+            // Materializes every student; prefer getStudentsPage() or forEachStudent() for large or lazy data sets.
              public List<domain.Student> getAllStudents() {
-                return new ArrayList<>(students.values());
+                if (lazyStore == null) return new ArrayList<>(students.values());
+                List<domain.Student> all = new ArrayList<>();
+                try {
+                    lazyStore.forEach(all::add);
+                } catch (IOException e) {
+                    util.Log.error("service.students", "Could not load students", "error", e.getMessage());
+                }
+                return all;
+            }
+
+            public int getStudentCount() { return lazyStore != null ? lazyStore.size() : students.size(); }
+
+            public void forEachStudent(Consumer<domain.Student> action) throws IOException {
+                if (lazyStore != null) lazyStore.forEach(action);
+                else students.values().forEach(action);
+            }
+
+            // Students exactly as of the snapshot, in id order, unaffected by writes made after it was opened.
+            public void forEachRecord(Snapshot snapshot, Consumer<domain.StudentRecord> action) {
+                if (lazyStore != null) lazyStore.forEachRecord(snapshot.getVersion(), records, action);
+                else records.forEach(snapshot.getVersion(), (id, record) -> action.accept(record));
+            }
+
+            // Students ordered by id; pass the previous page's next cursor (or null) to continue.
+            public Page<domain.Student> getStudentsPage(String cursor, int pageSize) throws IOException {
+                if (pageSize <= 0) throw new IllegalArgumentException("Page size must be positive");
+                if (lazyStore != null) return lazyStore.page(cursor, pageSize);
+                List<domain.Student> items = new ArrayList<>(pageSize);
+                String lastId = null;
+                boolean more = false;
+                for (domain.Student s : (cursor == null ? students : students.tailMap(cursor, false)).values()) {
+                    if (items.size() == pageSize) {
+                        more = true;
+                        break;
+                    }
+                    items.add(s);
+                    lastId = s.getId();
+                }
+                return new Page<>(items, more ? lastId : null);
+            }
+
+            public String getLazyStats() {
+                if (lazyStore == null) return "{\"lazy\":false}";
+                return String.format("{\"lazy\":true,\"indexed\":%d,\"cached\":%d,\"hydrations\":%d}",
+                        lazyStore.size(), lazyStore.getCachedCount(), lazyStore.getHydrationCount());
             }
 
             public void printStudentProfile(String studentId) throws exception.StudentNotFoundException {
@@ -546,38 +2232,217 @@ public class CCRM_Application {
             }
         }
 
-        public static class CourseService implements Persistable, Searchable<domain.Course> {
-             private final Map<domain.CourseCode, domain.Course> courses = new HashMap<>();
-             private Map<String, domain.Instructor> instructors = new HashMap<>();
+        public static class CourseService implements DeltaPersistable, Searchable<domain.Course> {
+             private static final String DELTA_PREFIX = "courses.delta-";
+             private static final Comparator<domain.Course> BY_TITLE =
+                 Comparator.comparing(domain.Course::getTitle).thenComparing(domain.Course::getCourseCode);
+             private static final Comparator<domain.Course> BY_CREDITS =
+                 Comparator.comparingInt(domain.Course::getCredits).thenComparing(domain.Course::getCourseCode);
+             private final ConcurrentSkipListMap<domain.CourseCode, domain.Course> courses = new ConcurrentSkipListMap<>();
+             private final NavigableSet<domain.Course> coursesByTitle = new ConcurrentSkipListSet<>(BY_TITLE);
+             private final Map<domain.Semester, NavigableSet<domain.Course>> coursesByCredits = new EnumMap<>(domain.Semester.class);
+             private final domain.ChangeTracker<domain.CourseCode> changeTracker = new domain.ChangeTracker<>();
+             private final VersionClock clock = VersionClock.getInstance();
+             private final VersionedMap<domain.CourseCode, domain.CourseRecord> records = new VersionedMap<>(clock);
+             private volatile long exportedSequence;
+             // As for students: courses added after the first load are changes and go into deltas.
+             private volatile boolean coursesLoaded;
+             private final Map<String, domain.Instructor> instructors = new ConcurrentHashMap<>();
              private final io.ImportExportService ioService;
              private final config.AppConfig appConfig = config.AppConfig.getInstance();
 
-            public CourseService(io.ImportExportService ioService) { this.ioService = ioService; }
+            public CourseService(io.ImportExportService ioService) {
+                this.ioService = ioService;
+                for (domain.Semester semester : domain.Semester.values()) {
+                    coursesByCredits.put(semester, new ConcurrentSkipListSet<>(BY_CREDITS));
+                }
+            }
 
             @Override
             public void loadData() throws IOException {
+                ReloadReport instructorReport = reloadInstructors();
+                ReloadReport courseReport = reloadCourses();
+                util.Log.info("service.courses", "Loaded instructors", instructorReport.toLogFields("count", instructors.size()));
+                util.Log.info("service.courses", "Loaded courses", courseReport.toLogFields("count", courses.size()));
+            }
+
+            public ReloadReport reloadInstructors() throws IOException {
                 Path instructorsPath = appConfig.getDataDirectory().resolve("instructors.csv");
-                instructors = ioService.importInstructors(instructorsPath);
-                
+                ReloadReport report = new ReloadReport();
+                Set<String> seen = new HashSet<>();
+                ioService.readInstructors(instructorsPath, incoming -> {
+                    seen.add(incoming.getId());
+                    domain.Instructor current = instructors.putIfAbsent(incoming.getId(), incoming);
+                    if (current == null) report.added++;
+                    else if (current.updateFrom(incoming)) report.updated++;
+                    else report.unchanged++;
+                });
+                report.retired = retireMissing(instructors.keySet(), seen);
+                return report;
+            }
+
+            // Courses resolve instructors by id, so reloadInstructors() must run first. Courses missing from the
+            // file leave the catalog, but existing Enrollments keep their (updated-in-place) Course references.
+            public ReloadReport reloadCourses() throws IOException {
                 Path coursesPath = appConfig.getDataDirectory().resolve("courses.csv");
-                courses.clear();
-                courses.putAll(ioService.importCourses(coursesPath, instructors));
-                System.out.println("Loaded " + courses.size() + " courses and " + instructors.size() + " instructors.");
+                ReloadReport report = new ReloadReport();
+                Set<domain.CourseCode> seen = new HashSet<>();
+                ioService.readCourses(coursesPath, instructors, incoming -> {
+                    seen.add(incoming.getCourseCode());
+                    domain.Course current = courses.get(incoming.getCourseCode());
+                    if (current == null) {
+                        incoming.setChangeListener(() -> publish(incoming, true));
+                        courses.put(incoming.getCourseCode(), incoming);
+                        index(incoming);
+                        publish(incoming, coursesLoaded);
+                        report.added++;
+                    } else if (updateIndexed(current, incoming)) {
+                        report.updated++;
+                    } else {
+                        report.unchanged++;
+                    }
+                });
+                for (Iterator<domain.Course> it = courses.values().iterator(); it.hasNext(); ) {
+                    domain.Course course = it.next();
+                    if (!seen.contains(course.getCourseCode())) {
+                        it.remove();
+                        unindex(course);
+                        retire(course);
+                        report.retired++;
+                    }
+                }
+                coursesLoaded = true;
+                return report;
+            }
+
+            // Title and credits are sort keys, so a course leaves its indexes while it is mutated.
+            private boolean updateIndexed(domain.Course current, domain.Course incoming) {
+                domain.Semester oldSemester = current.getSemester();
+                coursesByTitle.remove(current);
+                coursesByCredits.get(oldSemester).remove(current);
+                boolean changed = current.updateFrom(incoming);
+                index(current);
+                return changed;
+            }
+
+            private void index(domain.Course course) {
+                coursesByTitle.add(course);
+                coursesByCredits.get(course.getSemester()).add(course);
+            }
+
+            private void unindex(domain.Course course) {
+                coursesByTitle.remove(course);
+                coursesByCredits.get(course.getSemester()).remove(course);
+            }
+
+            private void publish(domain.Course course, boolean dirty) {
+                clock.beginCommit();
+                try {
+                    if (dirty) changeTracker.markDirty(course.getCourseCode());
+                    records.put(course.getCourseCode(), course.toRecord());
+                } finally {
+                    clock.endCommit();
+                }
+            }
+
+            private void retire(domain.Course course) {
+                clock.beginCommit();
+                try {
+                    changeTracker.markDirty(course.getCourseCode());
+                    records.remove(course.getCourseCode());
+                } finally {
+                    clock.endCommit();
+                }
+            }
+
+            private static <K> int retireMissing(Set<K> keys, Set<K> seen) {
+                int retired = 0;
+                for (Iterator<K> it = keys.iterator(); it.hasNext(); ) {
+                    if (!seen.contains(it.next())) {
+                        it.remove();
+                        retired++;
+                    }
+                }
+                return retired;
             }
 
             @Override
-            public void saveData() throws IOException {
-                if (!ioService.fs.exists(appConfig.getExportsDirectory())) {
-                    ioService.fs.createDirectory(appConfig.getExportsDirectory());
+            public void saveData(Snapshot snapshot) throws IOException {
+                long through = snapshot.getChangeSequence();
+                ioService.fs.createDirectoryIfAbsent(appConfig.getExportsDirectory());
+                Path coursesPath = appConfig.getExportsDirectory().resolve("courses.csv");
+                List<domain.CourseRecord> all = new ArrayList<>();
+                records.forEach(snapshot.getVersion(), (code, record) -> all.add(record));
+                ioService.exportCourseRecords(coursesPath, all);
+                for (Path delta : ioService.listDeltas(appConfig.getExportsDirectory(), DELTA_PREFIX)) ioService.fs.delete(delta);
+                changeTracker.prune(through);
+                exportedSequence = through;
+                util.Log.info("service.courses", "Exported courses", "count", all.size(), "path", coursesPath, "version", snapshot.getVersion());
+            }
+
+            @Override
+            public long saveDelta(long sinceSeq) throws IOException {
+                long through = clock.committedChangeSequence();
+                List<domain.Course> changed = new ArrayList<>();
+                List<domain.CourseCode> removed = new ArrayList<>();
+                for (domain.CourseCode code : changeTracker.changedSince(sinceSeq, through)) {
+                    domain.Course course = courses.get(code);
+                    if (course != null) changed.add(course);
+                    else removed.add(code);
+                }
+                if (!changed.isEmpty() || !removed.isEmpty()) {
+                    ioService.fs.createDirectoryIfAbsent(appConfig.getExportsDirectory());
+                    Path deltaPath = appConfig.getExportsDirectory().resolve(String.format("%s%012d.csv", DELTA_PREFIX, through));
+                    ioService.exportCourseDelta(deltaPath, changed, removed);
+                    util.Log.info("service.courses", "Exported changed courses", "count", changed.size(), "removed", removed.size(), "path", deltaPath);
+                } else {
+                    util.Log.info("service.courses", "No course changes", "since", sinceSeq);
                 }
+                exportedSequence = through;
+                return through;
+            }
+
+            @Override
+            public int compactDeltas() throws IOException {
                 Path coursesPath = appConfig.getExportsDirectory().resolve("courses.csv");
-                ioService.exportCourses(coursesPath, courses.values());
-                System.out.println("Exported " + courses.size() + " courses to " + coursesPath);
+                int merged = ioService.compact(coursesPath, ioService.listDeltas(appConfig.getExportsDirectory(), DELTA_PREFIX));
+                changeTracker.prune(exportedSequence);
+                util.Log.info("service.courses", "Compacted course deltas", "files", merged, "path", coursesPath);
+                return merged;
             }
+
+            @Override
+            public long getExportedSequence() { return exportedSequence; }
             
             public Optional<domain.Course> findCourseByCode(domain.CourseCode code) { return Optional.ofNullable(courses.get(code)); }
             public List<domain.Course> getAllCourses() { return new ArrayList<>(courses.values()); }
             public List<domain.Instructor> getAllInstructors() { return new ArrayList<>(instructors.values()); }
+
+            // Read-only, always-sorted live views; callers page through them instead of copying and sorting.
+            public NavigableMap<domain.CourseCode, domain.Course> getCatalogByCode() {
+                return Collections.unmodifiableNavigableMap(courses);
+            }
+
+            public NavigableMap<domain.CourseCode, domain.Course> getCatalogByCode(domain.CourseCode from, domain.CourseCode to) {
+                return Collections.unmodifiableNavigableMap(courses.subMap(from, true, to, true));
+            }
+
+            public NavigableSet<domain.Course> getCatalogByTitle() {
+                return Collections.unmodifiableNavigableSet(coursesByTitle);
+            }
+
+            public NavigableSet<domain.Course> getCatalogByCredits(domain.Semester semester) {
+                return Collections.unmodifiableNavigableSet(coursesByCredits.get(semester));
+            }
+
+            // 1-based page over a sorted view; walks offset + pageSize entries and never sorts or copies the catalog.
+            public static <T> List<T> page(Collection<T> sortedView, int pageNumber, int pageSize) {
+                if (pageNumber < 1 || pageSize < 1) throw new IllegalArgumentException("Page number and size must be positive");
+                return sortedView.stream()
+                    .skip((long) (pageNumber - 1) * pageSize)
+                    .limit(pageSize)
+                    .collect(Collectors.toList());
+            }
             
             public List<domain.Course> findCourses(domain.Semester semester) {
                 return findCourses(c -> c.getSemester().equals(semester));
@@ -596,48 +2461,112 @@ public class CCRM_Application {
             }
         }
         
+        // Per-student enrollment lists are immutable and replaced on write, so readers never lock. Writes go
+        // through VersionClock commits and publish EnrollmentRecords that snapshot readers see atomically.
         public static class EnrollmentService {
-            private final List<domain.Enrollment> enrollments = new ArrayList<>();
+            private final Map<String, List<domain.Enrollment>> enrollmentsByStudent = new ConcurrentHashMap<>();
+            private final VersionClock clock = VersionClock.getInstance();
+            private final VersionedMap<String, domain.EnrollmentRecord> records = new VersionedMap<>(clock);
+            private final List<Consumer<String>> changeListeners = new CopyOnWriteArrayList<>();
+            private final io.ImportExportService ioService;
+            private final config.AppConfig appConfig = config.AppConfig.getInstance();
             private final int MAX_CREDITS = 18;
 
+            public EnrollmentService(io.ImportExportService ioService) {
+                this.ioService = ioService;
+            }
+
+            public void addChangeListener(Consumer<String> studentIdListener) { changeListeners.add(studentIdListener); }
+
+            private void fireChange(String studentId) { changeListeners.forEach(l -> l.accept(studentId)); }
+
             public void enrollStudent(domain.Student student, domain.Course course) throws exception.MaxCreditLimitExceededException, exception.DuplicateEnrollmentException {
-                boolean alreadyEnrolled = enrollments.stream()
-                    .anyMatch(e -> e.getStudent().equals(student) && e.getCourse().equals(course));
-                if (alreadyEnrolled) {
-                    throw new exception.DuplicateEnrollmentException("Student " + student.getRegNo() + " is already enrolled in " + course.getCourseCode());
+                clock.beginCommit();
+                try {
+                    List<domain.Enrollment> current = enrollmentsByStudent.getOrDefault(student.getId(), List.of());
+                    boolean alreadyEnrolled = current.stream()
+                        .anyMatch(e -> e.getStudent().equals(student) && e.getCourse().equals(course));
+                    if (alreadyEnrolled) {
+                        throw new exception.DuplicateEnrollmentException("Student " + student.getRegNo() + " is already enrolled in " + course.getCourseCode());
+                    }
+
+                    int currentCredits = current.stream()
+                        .mapToInt(e -> e.getCourse().getCredits())
+                        .sum();
+
+                    if (currentCredits + course.getCredits() > MAX_CREDITS) {
+                        throw new exception.MaxCreditLimitExceededException("Enrollment failed. Student would exceed max credit limit of " + MAX_CREDITS);
+                    }
+
+                    domain.Enrollment enrollment = new domain.Enrollment(student, course);
+                    enrollment.setChangeListener(() -> publish(enrollment));
+                    List<domain.Enrollment> updated = new ArrayList<>(current.size() + 1);
+                    updated.addAll(current);
+                    updated.add(enrollment);
+                    enrollmentsByStudent.put(student.getId(), List.copyOf(updated));
+                    publish(enrollment);
+                } finally {
+                    clock.endCommit();
                 }
+                fireChange(student.getId());
+            }
 
-                int currentCredits = getEnrollmentsForStudent(student.getId()).stream()
-                    .mapToInt(e -> e.getCourse().getCredits())
-                    .sum();
-                
-                if (currentCredits + course.getCredits() > MAX_CREDITS) {
-                    throw new exception.MaxCreditLimitExceededException("Enrollment failed. Student would exceed max credit limit of " + MAX_CREDITS);
+            private void publish(domain.Enrollment enrollment) {
+                clock.beginCommit();
+                try {
+                    records.put(key(enrollment.getStudent().getId(), enrollment.getCourse().getCourseCode()), enrollment.toRecord());
+                } finally {
+                    clock.endCommit();
                 }
+            }
 
-                enrollments.add(new domain.Enrollment(student, course));
+            private static String key(String studentId, domain.CourseCode code) { return studentId + '\t' + code; }
+
+            public void recordGrade(String studentId, domain.CourseCode code, domain.Grade grade) throws exception.EnrollmentNotFoundException {
+                recordGrades(studentId, Map.of(code, grade));
             }
-            
+
+            // All grades become visible to snapshots together, or none are applied if any enrollment is missing.
+            public void recordGrades(String studentId, Map<domain.CourseCode, domain.Grade> grades) throws exception.EnrollmentNotFoundException {
+                clock.beginCommit();
+                try {
+                    Map<domain.Enrollment, domain.Grade> updates = new LinkedHashMap<>();
+                    for (Map.Entry<domain.CourseCode, domain.Grade> grade : grades.entrySet()) {
+                        domain.Enrollment enrollment = findEnrollment(studentId, grade.getKey())
+                            .orElseThrow(() -> new exception.EnrollmentNotFoundException("Student is not enrolled in this course."));
+                        updates.put(enrollment, grade.getValue());
+                    }
+                    updates.forEach(domain.Enrollment::setGrade);
+                } finally {
+                    clock.endCommit();
+                }
+                fireChange(studentId);
+            }
+
             public List<domain.Enrollment> getEnrollmentsForStudent(String studentId) {
-                return enrollments.stream()
-                    .filter(e -> e.getStudent().getId().equals(studentId))
-                    .collect(Collectors.toList());
+                return enrollmentsByStudent.getOrDefault(studentId, List.of());
+            }
+
+            public List<domain.EnrollmentRecord> getEnrollmentsForStudent(String studentId, Snapshot snapshot) {
+                List<domain.EnrollmentRecord> result = new ArrayList<>();
+                records.forEachInRange(studentId + '\t', studentId + '\n', snapshot.getVersion(), (k, record) -> result.add(record));
+                return result;
             }
 
             public Optional<domain.Enrollment> findEnrollment(String studentId, domain.CourseCode code) {
-                 return enrollments.stream()
-                    .filter(e -> e.getStudent().getId().equals(studentId) && e.getCourse().getCourseCode().equals(code))
+                 return getEnrollmentsForStudent(studentId).stream()
+                    .filter(e -> e.getCourse().getCourseCode().equals(code))
                     .findFirst();
             }
-            
+
             public double calculateGpa(String studentId) {
                 List<domain.Enrollment> studentEnrollments = getEnrollmentsForStudent(studentId);
-                
+
                 double totalPoints = studentEnrollments.stream()
                     .filter(e -> e.getGrade() != domain.Grade.NOT_GRADED)
                     .mapToDouble(e -> e.getGrade().getGradePoint() * e.getCourse().getCredits())
                     .sum();
-                
+
                 int totalCredits = studentEnrollments.stream()
                     .filter(e -> e.getGrade() != domain.Grade.NOT_GRADED)
                     .mapToInt(e -> e.getCourse().getCredits())
@@ -646,75 +2575,383 @@ public class CCRM_Application {
                 return totalCredits == 0 ? 0.0 : totalPoints / totalCredits;
             }
 
+            public double calculateGpa(String studentId, Snapshot snapshot) {
+                List<domain.EnrollmentRecord> graded = getEnrollmentsForStudent(studentId, snapshot).stream()
+                    .filter(e -> e.getGrade() != domain.Grade.NOT_GRADED)
+                    .collect(Collectors.toList());
+                double totalPoints = graded.stream().mapToDouble(e -> e.getGrade().getGradePoint() * e.getCredits()).sum();
+                int totalCredits = graded.stream().mapToInt(domain.EnrollmentRecord::getCredits).sum();
+                return totalCredits == 0 ? 0.0 : totalPoints / totalCredits;
+            }
+
             public List<domain.Enrollment> getAllEnrollments() {
-                return Collections.unmodifiableList(enrollments);
+                List<domain.Enrollment> all = new ArrayList<>();
+                enrollmentsByStudent.values().forEach(all::addAll);
+                return Collections.unmodifiableList(all);
+            }
+
+            public void forEachRecord(Snapshot snapshot, Consumer<domain.EnrollmentRecord> action) {
+                records.forEach(snapshot.getVersion(), (k, record) -> action.accept(record));
+            }
+
+            public void saveData(Snapshot snapshot) throws IOException {
+                ioService.fs.createDirectoryIfAbsent(appConfig.getExportsDirectory());
+                Path enrollmentsPath = appConfig.getExportsDirectory().resolve("enrollments.csv");
+                List<domain.EnrollmentRecord> all = new ArrayList<>();
+                forEachRecord(snapshot, all::add);
+                ioService.exportEnrollments(enrollmentsPath, all);
+                util.Log.info("service.enrollments", "Exported enrollments", "count", all.size(), "path", enrollmentsPath, "version", snapshot.getVersion());
             }
         }
 
         public static class TranscriptService {
-            public void printTranscript(domain.Student student, List<domain.Enrollment> enrollments, double gpa) {
-                 System.out.println("\n========================================");
-                 System.out.println("           ACADEMIC TRANSCRIPT          ");
-                 System.out.println("========================================");
-                 System.out.println(student.getProfile());
-                 System.out.println("----------------------------------------");
+            public String renderTranscript(domain.Student student, List<domain.Enrollment> enrollments, double gpa) {
+                 StringBuilder sb = new StringBuilder();
+                 sb.append("\n========================================\n");
+                 sb.append("           ACADEMIC TRANSCRIPT          \n");
+                 sb.append("========================================\n");
+                 sb.append(student.getProfile()).append('\n');
+                 sb.append("----------------------------------------\n");
                  if (enrollments.isEmpty()) {
-                    System.out.println("No courses enrolled.");
+                    sb.append("No courses enrolled.\n");
                  } else {
-                    enrollments.forEach(System.out::println);
+                    enrollments.forEach(e -> sb.append(e).append('\n'));
                  }
-                 System.out.println("----------------------------------------");
-                 System.out.printf("Cumulative GPA: %.2f\n", gpa);
-                 System.out.println("========================================\n");
+                 sb.append("----------------------------------------\n");
+                 sb.append(String.format("Cumulative GPA: %.2f\n", gpa));
+                 sb.append("========================================\n");
+                 return sb.toString();
+            }
+
+            public void printTranscript(domain.Student student, List<domain.Enrollment> enrollments, double gpa) {
+                 System.out.println(renderTranscript(student, enrollments, gpa));
             }
         }
+
+        public static class TranscriptCache {
+            public static final class Transcript {
+                private final List<domain.Enrollment> enrollments;
+                private final double gpa;
+                private final String profile;
+                private final String text;
+
+                private Transcript(List<domain.Enrollment> enrollments, double gpa, String profile, String text) {
+                    this.enrollments = enrollments;
+                    this.gpa = gpa;
+                    this.profile = profile;
+                    this.text = text;
+                }
+
+                public List<domain.Enrollment> getEnrollments() { return enrollments; }
+                public double getGpa() { return gpa; }
+                public String getText() { return text; }
+            }
+
+            private final EnrollmentService enrollmentService;
+            private final TranscriptService transcriptService;
+            private final int capacity;
+            private final LinkedHashMap<String, Transcript> entries;
+            // One token per in-flight miss; invalidating a student drops its token, so only that student's
+            // racing computation goes uncached.
+            private final Map<String, Object> computing = new HashMap<>();
+            private long hits, misses, evictions, invalidations;
+
+            public TranscriptCache(EnrollmentService enrollmentService, TranscriptService transcriptService, int capacity) {
+                this.enrollmentService = enrollmentService;
+                this.transcriptService = transcriptService;
+                this.capacity = capacity;
+                this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, Transcript> eldest) {
+                        if (size() > TranscriptCache.this.capacity) {
+                            evictions++;
+                            return true;
+                        }
+                        return false;
+                    }
+                };
+                enrollmentService.addChangeListener(this::invalidate);
+            }
+
+            public Transcript getTranscript(domain.Student student) {
+                String profile = student.getProfile();
+                Object token = new Object();
+                synchronized (this) {
+                    Transcript cached = entries.get(student.getId());
+                    if (cached != null && cached.profile.equals(profile)) {
+                        hits++;
+                        return cached;
+                    }
+                    misses++;
+                    computing.put(student.getId(), token);
+                }
+                Transcript computed;
+                try {
+                    List<domain.Enrollment> enrollments = Collections.unmodifiableList(enrollmentService.getEnrollmentsForStudent(student.getId()));
+                    double gpa = enrollmentService.calculateGpa(student.getId());
+                    computed = new Transcript(enrollments, gpa, profile, transcriptService.renderTranscript(student, enrollments, gpa));
+                } catch (RuntimeException e) {
+                    synchronized (this) { computing.remove(student.getId(), token); }
+                    throw e;
+                }
+                synchronized (this) {
+                    // A missing token means an enroll or grade change for this student raced with the computation;
+                    // serve it but don't cache it.
+                    if (computing.remove(student.getId(), token)) entries.put(student.getId(), computed);
+                }
+                return computed;
+            }
+
+            public double getGpa(domain.Student student) { return getTranscript(student).getGpa(); }
+
+            public synchronized void invalidate(String studentId) {
+                computing.remove(studentId);
+                if (entries.remove(studentId) != null) invalidations++;
+            }
+
+            // After a reload only the changed students are dropped. Transcripts embed course titles and instructor
+            // names, so any updated or retired catalog row still clears the whole cache.
+            public synchronized void invalidate(ReloadReport students, ReloadReport... catalog) {
+                for (ReloadReport report : catalog) {
+                    if (report.getUpdated() > 0 || report.getRetired() > 0) {
+                        invalidateAll();
+                        return;
+                    }
+                }
+                students.getChangedIds().forEach(this::invalidate);
+            }
+
+            public synchronized void invalidateAll() {
+                computing.clear();
+                invalidations += entries.size();
+                entries.clear();
+            }
+
+            public synchronized String getStats() {
+                long lookups = hits + misses;
+                return String.format(Locale.ROOT,
+                    "{\"size\":%d,\"capacity\":%d,\"hits\":%d,\"misses\":%d,\"hitRate\":%.3f,\"evictions\":%d,\"invalidations\":%d}",
+                    entries.size(), capacity, hits, misses, lookups == 0 ? 0.0 : (double) hits / lookups, evictions, invalidations);
+            }
+        }
+
+        public static class StartupOrchestrator {
+            public static final String STUDENTS = "students";
+            public static final String INSTRUCTORS = "instructors";
+            public static final String COURSES = "courses";
+
+            @FunctionalInterface
+            public interface Phase {
+                String run() throws Exception;
+            }
+
+            private static final class PhaseTiming {
+                private volatile long startNanos;
+                private volatile long endNanos;
+                private volatile String summary;
+            }
+
+            private final Map<String, CompletableFuture<Void>> phases = new ConcurrentHashMap<>();
+            private final Map<String, PhaseTiming> timings = Collections.synchronizedMap(new LinkedHashMap<>());
+            private final ExecutorService executor = Executors.newCachedThreadPool(r -> {
+                Thread t = new Thread(r, "ccrm-startup");
+                t.setDaemon(true);
+                return t;
+            });
+            private final long startedAt = System.nanoTime();
+
+            // Schedules a phase as soon as all of its dependencies (which must already be registered) complete.
+            public StartupOrchestrator phase(String name, Phase task, String... dependsOn) {
+                PhaseTiming timing = new PhaseTiming();
+                timings.put(name, timing);
+                CompletableFuture<Void> ready = whenReady(dependsOn).thenRunAsync(() -> {
+                    timing.startNanos = System.nanoTime();
+                    try {
+                        timing.summary = task.run();
+                    } catch (Exception e) {
+                        throw new CompletionException(e);
+                    } finally {
+                        timing.endNanos = System.nanoTime();
+                    }
+                }, executor);
+                phases.put(name, ready);
+                return this;
+            }
+
+            public CompletableFuture<Void> whenReady(String... names) {
+                CompletableFuture<?>[] deps = Arrays.stream(names)
+                    .map(n -> Objects.requireNonNull(phases.get(n), "Unknown startup phase: " + n))
+                    .toArray(CompletableFuture<?>[]::new);
+                return CompletableFuture.allOf(deps);
+            }
+
+            public CompletableFuture<Void> whenAllReady() {
+                return whenReady(phases.keySet().toArray(new String[0]));
+            }
+
+            public boolean isReady(String... names) {
+                return Arrays.stream(names).allMatch(n -> {
+                    CompletableFuture<Void> f = phases.get(n);
+                    return f != null && f.isDone() && !f.isCompletedExceptionally();
+                });
+            }
+
+            // Root cause of the first named phase that failed, or null if none has. A failed phase never becomes ready.
+            public Throwable getFailure(String... names) {
+                for (String name : names) {
+                    CompletableFuture<Void> f = phases.get(name);
+                    if (f == null || !f.isCompletedExceptionally()) continue;
+                    try {
+                        f.join();
+                    } catch (CompletionException | CancellationException e) {
+                        Throwable cause = e;
+                        while (cause.getCause() != null) cause = cause.getCause();
+                        return cause;
+                    }
+                }
+                return null;
+            }
+
+            public String getTimingReport() {
+                StringBuilder sb = new StringBuilder("\n--- Startup Timing ---\n");
+                long lastEnd = startedAt;
+                String failed = null;
+                synchronized (timings) {
+                    for (Map.Entry<String, PhaseTiming> entry : timings.entrySet()) {
+                        PhaseTiming t = entry.getValue();
+                        CompletableFuture<Void> f = phases.get(entry.getKey());
+                        String status = f.isCompletedExceptionally() ? "FAILED" : f.isDone() ? "ok" : "pending";
+                        if (failed == null && f.isCompletedExceptionally()) failed = entry.getKey();
+                        if (t.endNanos == 0) {
+                            sb.append(String.format("  %-12s %s%n", entry.getKey(), status));
+                            continue;
+                        }
+                        sb.append(String.format("  %-12s start +%7.2f ms  took %7.2f ms  %s%s%n", entry.getKey(),
+                            (t.startNanos - startedAt) / 1e6, (t.endNanos - t.startNanos) / 1e6, status,
+                            t.summary != null ? "  (" + t.summary + ")" : ""));
+                        lastEnd = Math.max(lastEnd, t.endNanos);
+                    }
+                }
+                if (failed != null) {
+                    sb.append(String.format("  time-to-ready: failed (%s: %s)%n", failed, getFailure(failed).getMessage()));
+                } else {
+                    sb.append(String.format("  time-to-ready: %.2f ms%n", (lastEnd - startedAt) / 1e6));
+                }
+                sb.append("----------------------");
+                return sb.toString();
+            }
+
+            public void shutdown() { executor.shutdown(); }
+        }
     }
 
     public static class cli {
         public static class MenuHandler {
+            private static final int STUDENT_PAGE_SIZE = 20;
+            private static final int COURSE_PAGE_SIZE = 20;
             private final Scanner scanner = new Scanner(System.in);
             private final service.StudentService studentService;
             private final service.CourseService courseService;
             private final service.EnrollmentService enrollmentService;
             private final service.TranscriptService transcriptService;
-            private final io.BackupService backupService;
+            private final service.TranscriptCache transcriptCache;
+            private final io.BackupScheduler backupScheduler;
              private final io.InMemoryFileSystem fs;
+            private api.HttpApiServer apiServer;
+            private service.StartupOrchestrator startup;
+            private boolean startupReported;
 
             public MenuHandler() {
                 this.fs = new io.InMemoryFileSystem();
                 io.ImportExportService ioService = new io.ImportExportService(fs);
                 this.studentService = new service.StudentService(ioService);
                 this.courseService = new service.CourseService(ioService);
-                this.enrollmentService = new service.EnrollmentService();
+                this.enrollmentService = new service.EnrollmentService(ioService);
                 this.transcriptService = new service.TranscriptService();
-                this.backupService = new io.BackupService(fs);
+                this.transcriptCache = new service.TranscriptCache(enrollmentService, transcriptService,
+                        config.AppConfig.getInstance().getTranscriptCacheSize());
+                this.backupScheduler = new io.BackupScheduler(new io.BackupService(fs));
             }
 
             public void start() {
                 System.out.println("Welcome to the Campus Course & Records Manager (CCRM)");
+                bootstrap();
+                startup.whenAllReady().whenComplete((ok, failure) -> startup.shutdown());
+                backupScheduler.start();
+
+                runMainMenu();
+                backupScheduler.stop();
+                if (apiServer != null) apiServer.stop();
+            }
+
+            public void serve(int port) throws IOException {
+                System.out.println("Starting CCRM in headless API mode");
+                bootstrap();
+                startup.whenAllReady().whenComplete((ok, failure) -> {
+                    reportStartup();
+                    startup.shutdown();
+                });
+                backupScheduler.start();
+                startApiServer(port);
+            }
+
+            // Students and instructors load in parallel; courses wait only on instructors.
+            private void bootstrap() {
+                startup = new service.StartupOrchestrator()
+                    .phase(service.StartupOrchestrator.STUDENTS, () -> studentService.reload().toString())
+                    .phase(service.StartupOrchestrator.INSTRUCTORS, () -> courseService.reloadInstructors().toString())
+                    .phase(service.StartupOrchestrator.COURSES, () -> courseService.reloadCourses().toString(),
+                           service.StartupOrchestrator.INSTRUCTORS);
+            }
+
+            private void reportStartup() {
+                startupReported = true;
                 try {
-                    studentService.loadData();
-                    courseService.loadData();
+                    startup.whenAllReady().join();
                     System.out.println("Initial data loaded successfully from in-memory source.");
-                } catch (IOException e) {
-                    System.err.println("!!! Could not load initial data: " + e.getMessage());
+                } catch (CompletionException e) {
+                    System.err.println("!!! Could not load initial data: " + rootCause(e).getMessage());
                 }
-                
-                util.MiscUtils.demonstrateBitwiseOps();
-                util.MiscUtils.demonstrateArrayUtils();
+                System.out.println(startup.getTimingReport());
+            }
 
-                runMainMenu();
+            private boolean awaitReady(String... datasets) {
+                if (!startup.isReady(datasets)) {
+                    System.out.println("Waiting for " + String.join(", ", datasets) + " to finish loading...");
+                }
+                try {
+                    startup.whenReady(datasets).join();
+                    return true;
+                } catch (CompletionException e) {
+                    System.err.println("!!! Data unavailable: " + rootCause(e).getMessage());
+                    return false;
+                }
+            }
+
+            private static Throwable rootCause(Throwable t) {
+                while (t.getCause() != null) t = t.getCause();
+                return t;
+            }
+
+            private void startApiServer(int port) throws IOException {
+                apiServer = new api.HttpApiServer(studentService, courseService, enrollmentService, transcriptCache, backupScheduler, startup);
+                apiServer.start(port);
+                System.out.println("HTTP API listening on port " + apiServer.getPort());
             }
 
             public void runMainMenu() {
                 boolean running = true;
                 do {
+                    // Report between prompts so the timing summary never interleaves with menu output.
+                    if (!startupReported && startup.whenAllReady().isDone()) reportStartup();
+                    util.Log.flush();
                     System.out.println("\n========= CCRM Main Menu =========");
                     System.out.println("1. Manage Students");
                     System.out.println("2. Manage Courses");
                     System.out.println("3. Manage Enrollments & Grades");
                     System.out.println("4. File Operations (Export/Backup)");
                     System.out.println("5. Show Java Platform Info");
+                    System.out.println("6. Start/Stop HTTP API");
                     System.out.println("0. Exit");
                     System.out.print("Enter your choice: ");
 
@@ -727,11 +2964,12 @@ public class CCRM_Application {
                     }
 
                     switch (choice) {
-                        case 1 -> manageStudents();
-                        case 2 -> manageCourses();
-                        case 3 -> manageEnrollments();
-                        case 4 -> manageFileOps();
+                        case 1 -> { if (awaitReady(service.StartupOrchestrator.STUDENTS)) manageStudents(); }
+                        case 2 -> { if (awaitReady(service.StartupOrchestrator.COURSES)) manageCourses(); }
+                        case 3 -> { if (awaitReady(service.StartupOrchestrator.STUDENTS, service.StartupOrchestrator.COURSES)) manageEnrollments(); }
+                        case 4 -> { if (awaitReady(service.StartupOrchestrator.STUDENTS, service.StartupOrchestrator.COURSES)) manageFileOps(); }
                         case 5 -> showPlatformInfo();
+                        case 6 -> toggleApiServer();
                         case 0 -> running = false;
                         default -> System.out.println("Invalid choice. Please try again.");
                     }
@@ -741,7 +2979,20 @@ public class CCRM_Application {
             
             private void manageStudents() {
                 System.out.println("\n--- Student Management ---");
-                studentService.getAllStudents().forEach(s -> System.out.println(s.getProfile()));
+                try {
+                    String cursor = null;
+                    do {
+                        service.Page<domain.Student> page = studentService.getStudentsPage(cursor, STUDENT_PAGE_SIZE);
+                        page.getItems().forEach(s -> System.out.println(s.getProfile()));
+                        cursor = page.getNextCursor();
+                        if (cursor != null) {
+                            System.out.print("-- Enter 'n' for the next page, anything else to return: ");
+                            if (!"n".equalsIgnoreCase(scanner.nextLine().trim())) break;
+                        }
+                    } while (cursor != null);
+                } catch (IOException e) {
+                    System.err.println("!!! Could not list students: " + e.getMessage());
+                }
                 System.out.println("--------------------------");
             }
             
@@ -749,14 +3000,48 @@ public class CCRM_Application {
                 System.out.println("\n--- Course Management ---");
                 System.out.println("1. List All Courses");
                 System.out.println("2. Search Courses");
+                System.out.println("3. List Courses by Title");
+                System.out.println("4. List Semester Courses by Credits");
+                System.out.println("5. List Course Code Range");
                 System.out.print("Enter choice: ");
                 int choice = Integer.parseInt(scanner.nextLine());
-                if (choice == 1) {
-                    courseService.getAllCourses().stream()
-                        .sorted(Comparator.comparing(c -> c.getCourseCode().toString()))
-                        .forEach(System.out::println);
-                } else if (choice == 2) {
-                    searchCourses();
+                try {
+                    switch (choice) {
+                        case 1 -> printPaged(courseService.getCatalogByCode().values());
+                        case 2 -> searchCourses();
+                        case 3 -> printPaged(courseService.getCatalogByTitle());
+                        case 4 -> {
+                            System.out.print("Enter semester (SPRING, SUMMER, FALL, WINTER): ");
+                            domain.Semester semester = domain.Semester.valueOf(scanner.nextLine().trim().toUpperCase());
+                            printPaged(courseService.getCatalogByCredits(semester));
+                        }
+                        case 5 -> {
+                            System.out.print("Enter first course code (e.g., CS100): ");
+                            domain.CourseCode from = domain.CourseCode.parse(scanner.nextLine());
+                            System.out.print("Enter last course code (e.g., CS199): ");
+                            domain.CourseCode to = domain.CourseCode.parse(scanner.nextLine());
+                            printPaged(courseService.getCatalogByCode(from, to).values());
+                        }
+                    }
+                } catch (IllegalArgumentException e) {
+                    System.err.println("!!! Invalid input. " + e.getMessage());
+                }
+            }
+
+            private void printPaged(Iterable<domain.Course> sortedView) {
+                Iterator<domain.Course> it = sortedView.iterator();
+                if (!it.hasNext()) {
+                    System.out.println("No courses found.");
+                    return;
+                }
+                while (it.hasNext()) {
+                    for (int i = 0; i < COURSE_PAGE_SIZE && it.hasNext(); i++) {
+                        System.out.println(it.next());
+                    }
+                    if (it.hasNext()) {
+                        System.out.print("-- Enter 'n' for the next page, anything else to return: ");
+                        if (!"n".equalsIgnoreCase(scanner.nextLine().trim())) return;
+                    }
                 }
             }
 
@@ -836,13 +3121,14 @@ public class CCRM_Application {
                      String codeStr = scanner.nextLine().toUpperCase();
                     domain.CourseCode code = new domain.CourseCode(codeStr.replaceAll("[0-9]",""), Integer.parseInt(codeStr.replaceAll("[^0-9]","")));
                      
-                    domain.Enrollment enrollment = enrollmentService.findEnrollment(studentId, code)
-                         .orElseThrow(() -> new Exception("Student is not enrolled in this course."));
+                    if (enrollmentService.findEnrollment(studentId, code).isEmpty()) {
+                        throw new exception.EnrollmentNotFoundException("Student is not enrolled in this course.");
+                    }
 
                     System.out.print("Enter Grade (S, A, B, C, D, E, F): ");
                     domain.Grade grade = domain.Grade.valueOf(scanner.nextLine().toUpperCase());
                     
-                    enrollment.setGrade(grade);
+                    enrollmentService.recordGrade(studentId, code, grade);
                     System.out.println("Grade recorded successfully.");
 
                  } catch (Exception e) {
@@ -857,10 +3143,7 @@ public class CCRM_Application {
                     domain.Student student = studentService.findStudentById(studentId)
                          .orElseThrow(() -> new exception.StudentNotFoundException("Student not found."));
 
-                    List<domain.Enrollment> enrollments = enrollmentService.getEnrollmentsForStudent(studentId);
-                    double gpa = enrollmentService.calculateGpa(studentId);
-                    
-                    transcriptService.printTranscript(student, enrollments, gpa);
+                    System.out.println(transcriptCache.getTranscript(student).getText());
 
                  } catch (exception.StudentNotFoundException e) {
                      System.err.println("!!! Error: " + e.getMessage());
@@ -872,15 +3155,25 @@ public class CCRM_Application {
                  System.out.println("1. Export All Data");
                  System.out.println("2. Create Backup from Exports");
                  System.out.println("3. Show Backup Size (Recursive Demo)");
+                 System.out.println("4. Export Changes Since Last Export (Delta)");
+                 System.out.println("5. Compact Delta Exports");
+                 System.out.println("6. Reload Data From Source (Upsert)");
+                 System.out.println("7. Show Backup Schedule Status");
                  System.out.print("Enter choice: ");
                  int choice = Integer.parseInt(scanner.nextLine());
                  try {
                      switch (choice) {
                          case 1 -> {
-                             studentService.saveData();
-                             courseService.saveData();
+                             try (service.Snapshot snapshot = service.VersionClock.getInstance().openSnapshot()) {
+                                 studentService.saveData(snapshot);
+                                 courseService.saveData(snapshot);
+                                 enrollmentService.saveData(snapshot);
+                             }
+                         }
+                         case 2 -> {
+                             backupScheduler.runNow();
+                             System.out.println("Backup started in the background (see option 7 for status).");
                          }
-                         case 2 -> backupService.performBackup();
                          case 3 -> {
                             Path backupDir = config.AppConfig.getInstance().getBackupDirectory();
                             if (fs.exists(backupDir)) {
@@ -890,11 +3183,66 @@ public class CCRM_Application {
                                 System.out.println("Backup directory does not exist yet.");
                             }
                          }
+                         case 4 -> {
+                             studentService.saveDelta(studentService.getExportedSequence());
+                             courseService.saveDelta(courseService.getExportedSequence());
+                         }
+                         case 5 -> {
+                             studentService.compactDeltas();
+                             courseService.compactDeltas();
+                         }
+                         case 6 -> {
+                             service.ReloadReport students = studentService.reload();
+                             service.ReloadReport instructors = courseService.reloadInstructors();
+                             service.ReloadReport courses = courseService.reloadCourses();
+                             transcriptCache.invalidate(students, instructors, courses);
+                             util.Log.info("service.students", "Reloaded students", students.toLogFields());
+                             util.Log.info("service.courses", "Reloaded instructors", instructors.toLogFields());
+                             util.Log.info("service.courses", "Reloaded courses", courses.toLogFields());
+                         }
+                         case 7 -> printBackupStatus();
                      }
                  } catch (IOException e) {
                     System.err.println("File operation failed: " + e.getMessage());
                  }
             }
+            private void printBackupStatus() {
+                io.BackupScheduler.Status status = backupScheduler.getStatus();
+                System.out.println("\n--- Backup Schedule ---");
+                System.out.println(backupScheduler.getIntervalSeconds() > 0
+                    ? "Every " + backupScheduler.getIntervalSeconds() + " s, next run: " + status.getNextRunAt()
+                    : "Scheduled backups disabled (on demand only)");
+                System.out.println("Throttle: " + (backupScheduler.getBytesPerSecond() > 0 ? backupScheduler.getBytesPerSecond() + " bytes/s" : "none")
+                    + " | Retention: last " + backupScheduler.getKeepHourly() + " hourly, " + backupScheduler.getKeepDaily() + " daily");
+                if (status.getLastStartedAt() == null) {
+                    System.out.println("Last run: never" + (status.isRunning() ? " (running now)" : ""));
+                } else {
+                    System.out.println("Last run: " + status.getLastStartedAt() + " -> " + status.getLastOutcome()
+                        + " in " + status.getLastDurationMillis() + " ms" + (status.isRunning() ? " (another run in progress)" : ""));
+                    if (status.getLastBackup() != null) {
+                        System.out.println("Last backup: " + status.getLastBackup().getPath() + " (" + status.getLastBackup().getFiles()
+                            + " files, " + status.getLastBackup().getBytes() + " bytes, throttled " + status.getLastBackup().getThrottledMillis() + " ms)");
+                    }
+                    if (status.getLastError() != null) System.out.println("Error: " + status.getLastError());
+                }
+                System.out.println("Backups retained: " + status.getRetained() + " (pruned " + status.getLastPruned() + " on last run)");
+            }
+
+            private void toggleApiServer() {
+                if (apiServer != null) {
+                    apiServer.stop();
+                    apiServer = null;
+                    System.out.println("HTTP API stopped.");
+                    return;
+                }
+                try {
+                    startApiServer(api.HttpApiServer.DEFAULT_PORT);
+                } catch (IOException e) {
+                    apiServer = null;
+                    System.err.println("!!! Could not start HTTP API: " + e.getMessage());
+                }
+            }
+
              private void showPlatformInfo() {
                  System.out.println("\n--- Java Platform Information (as per README) ---");
                  System.out.println("\n** Java ME vs SE vs EE **");
@@ -905,11 +3253,914 @@ public class CCRM_Application {
                  System.out.println("- JDK (Development Kit): Contains tools to CREATE Java apps (compiler, etc.).");
                  System.out.println("- JRE (Runtime Environment): Contains libraries and JVM to RUN Java apps.");
                  System.out.println("- JVM (Virtual Machine): The 'engine' that executes the compiled Java bytecode.");
+
+                 util.MiscUtils.demonstrateBitwiseOps();
+                 util.MiscUtils.demonstrateArrayUtils();
              }
         }
     }
 
+    public static class api {
+        public static class HttpApiServer {
+            public static final int DEFAULT_PORT = 8080;
+
+            @FunctionalInterface
+            private interface Route {
+                String handle(HttpExchange exchange, Map<String, String> params) throws Exception;
+            }
+
+            private final service.StudentService studentService;
+            private final service.CourseService courseService;
+            private final service.EnrollmentService enrollmentService;
+            private final service.TranscriptCache transcriptCache;
+            private final io.BackupScheduler backupScheduler;
+            private final service.StartupOrchestrator startup;
+            private HttpServer server;
+            private ExecutorService executor;
+
+            public HttpApiServer(service.StudentService studentService, service.CourseService courseService,
+                                 service.EnrollmentService enrollmentService, service.TranscriptCache transcriptCache,
+                                 io.BackupScheduler backupScheduler, service.StartupOrchestrator startup) {
+                this.studentService = studentService;
+                this.courseService = courseService;
+                this.enrollmentService = enrollmentService;
+                this.transcriptCache = transcriptCache;
+                this.backupScheduler = backupScheduler;
+                this.startup = startup;
+            }
+
+            public void start(int port) throws IOException {
+                configureServerProperties();
+                server = HttpServer.create(new InetSocketAddress(port), 4096);
+                executor = newRequestExecutor();
+                server.setExecutor(executor);
+                server.createContext("/api/students", route("GET", this::listStudents, service.StartupOrchestrator.STUDENTS));
+                server.createContext("/api/students/", route("GET", this::getStudent, service.StartupOrchestrator.STUDENTS));
+                server.createContext("/api/students/stats", route("GET", this::getStudentStats));
+                server.createContext("/api/courses", route("GET", this::getCourses, service.StartupOrchestrator.COURSES));
+                server.createContext("/api/catalog", route("GET", this::getCatalog, service.StartupOrchestrator.COURSES));
+                server.createContext("/api/enrollments", route("POST", this::postEnrollment, service.StartupOrchestrator.STUDENTS, service.StartupOrchestrator.COURSES));
+                server.createContext("/api/grades", route("POST", this::postGrade, service.StartupOrchestrator.STUDENTS, service.StartupOrchestrator.COURSES));
+                server.createContext("/api/transcripts/", route("GET", this::getTranscript, service.StartupOrchestrator.STUDENTS));
+                server.createContext("/api/export", route("POST", this::postExport, service.StartupOrchestrator.STUDENTS, service.StartupOrchestrator.COURSES));
+                server.createContext("/api/cache/stats", route("GET", this::getCacheStats));
+                server.createContext("/api/reload", route("POST", this::postReload, service.StartupOrchestrator.STUDENTS, service.StartupOrchestrator.COURSES));
+                server.createContext("/api/backups", route("POST", this::postBackup));
+                server.createContext("/api/backups/status", route("GET", this::getBackupStatus));
+                server.start();
+            }
+
+            public void stop() {
+                server.stop(0);
+                executor.shutdown();
+            }
+
+            public int getPort() { return server.getAddress().getPort(); }
+
+            static void configureServerProperties() {
+                // Small JSON responses otherwise stall on Nagle + delayed ACK (~40 ms per request).
+                if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+                    System.setProperty("sun.net.httpserver.nodelay", "true");
+                }
+                // Allow thousands of keep-alive clients without reconnect churn (JDK default is 200).
+                if (System.getProperty("sun.net.httpserver.maxIdleConnections") == null) {
+                    System.setProperty("sun.net.httpserver.maxIdleConnections", "4096");
+                }
+            }
+
+            // Virtual threads need JDK 21+; fall back to a cached pool so the server still runs on JDK 17.
+            static ExecutorService newRequestExecutor() {
+                try {
+                    return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+                } catch (ReflectiveOperationException e) {
+                    return Executors.newCachedThreadPool();
+                }
+            }
+
+            private String getStudent(HttpExchange exchange, Map<String, String> params) throws exception.StudentNotFoundException {
+                String id = pathTail(exchange, "/api/students/");
+                domain.Student s = studentService.findStudentById(id)
+                    .orElseThrow(() -> new exception.StudentNotFoundException("Student not found: " + id));
+                return studentJson(s);
+            }
+
+            private String listStudents(HttpExchange exchange, Map<String, String> params) throws IOException {
+                int limit = params.containsKey("limit") ? Integer.parseInt(params.get("limit")) : 50;
+                service.Page<domain.Student> page = studentService.getStudentsPage(params.get("cursor"), Math.min(limit, 1000));
+                return "{\"items\":" + page.getItems().stream().map(HttpApiServer::studentJson).collect(Collectors.joining(",", "[", "]"))
+                    + ",\"nextCursor\":" + util.JsonUtils.quote(page.getNextCursor()) + "}";
+            }
+
+            private String getStudentStats(HttpExchange exchange, Map<String, String> params) {
+                return studentService.getLazyStats();
+            }
+
+            private String getCourses(HttpExchange exchange, Map<String, String> params) {
+                Predicate<domain.Course> filter = c -> true;
+                if (params.containsKey("semester")) {
+                    domain.Semester semester = domain.Semester.valueOf(params.get("semester").toUpperCase());
+                    filter = filter.and(c -> c.getSemester() == semester);
+                }
+                if (params.containsKey("department")) {
+                    String dept = params.get("department");
+                    filter = filter.and(c -> c.getDepartment().equalsIgnoreCase(dept));
+                }
+                if (params.containsKey("minCredits")) {
+                    int min = Integer.parseInt(params.get("minCredits"));
+                    filter = filter.and(c -> c.getCredits() >= min);
+                }
+                if (params.containsKey("maxCredits")) {
+                    int max = Integer.parseInt(params.get("maxCredits"));
+                    filter = filter.and(c -> c.getCredits() <= max);
+                }
+                List<domain.Course> results = params.containsKey("q")
+                    ? courseService.search(params.get("q")).stream().filter(filter).collect(Collectors.toList())
+                    : courseService.findCourses(filter);
+                return results.stream().map(HttpApiServer::courseJson).collect(Collectors.joining(",", "[", "]"));
+            }
+
+            // GET /api/catalog?order=code|title|credits[&semester=FALL][&from=CS100&to=CS199][&page=3&size=20]
+            private String getCatalog(HttpExchange exchange, Map<String, String> params) {
+                String order = params.getOrDefault("order", "code");
+                Collection<domain.Course> view;
+                switch (order) {
+                    case "code" -> view = params.containsKey("from") || params.containsKey("to")
+                        ? courseService.getCatalogByCode(domain.CourseCode.parse(required(params, "from")),
+                                                         domain.CourseCode.parse(required(params, "to"))).values()
+                        : courseService.getCatalogByCode().values();
+                    case "title" -> view = courseService.getCatalogByTitle();
+                    case "credits" -> view = courseService.getCatalogByCredits(
+                        domain.Semester.valueOf(required(params, "semester").toUpperCase()));
+                    default -> throw new IllegalArgumentException("unknown order '" + order + "'");
+                }
+                int page = params.containsKey("page") ? Integer.parseInt(params.get("page")) : 1;
+                int size = params.containsKey("size") ? Math.min(Integer.parseInt(params.get("size")), 500) : 20;
+                return "{\"order\":" + util.JsonUtils.quote(order) + ",\"page\":" + page + ",\"size\":" + size
+                    + ",\"items\":" + service.CourseService.page(view, page, size).stream()
+                        .map(HttpApiServer::courseJson).collect(Collectors.joining(",", "[", "]")) + "}";
+            }
+
+            private String postEnrollment(HttpExchange exchange, Map<String, String> params) throws Exception {
+                domain.Student student = requireStudent(required(params, "studentId"));
+                domain.CourseCode code = domain.CourseCode.parse(required(params, "courseCode"));
+                domain.Course course = courseService.findCourseByCode(code)
+                    .orElseThrow(() -> new exception.CourseNotFoundException("Course not found: " + code));
+                enrollmentService.enrollStudent(student, course);
+                return "{\"studentId\":" + util.JsonUtils.quote(student.getId())
+                    + ",\"courseCode\":" + util.JsonUtils.quote(code.toString()) + ",\"status\":\"ENROLLED\"}";
+            }
+
+            private String postGrade(HttpExchange exchange, Map<String, String> params) throws Exception {
+                String studentId = required(params, "studentId");
+                domain.CourseCode code = domain.CourseCode.parse(required(params, "courseCode"));
+                domain.Grade grade = domain.Grade.valueOf(required(params, "grade").toUpperCase());
+                enrollmentService.recordGrade(studentId, code, grade);
+                return "{\"studentId\":" + util.JsonUtils.quote(studentId)
+                    + ",\"courseCode\":" + util.JsonUtils.quote(code.toString())
+                    + ",\"grade\":" + util.JsonUtils.quote(grade.name()) + "}";
+            }
+
+            private String getTranscript(HttpExchange exchange, Map<String, String> params) throws exception.StudentNotFoundException {
+                domain.Student student = requireStudent(pathTail(exchange, "/api/transcripts/"));
+                service.TranscriptCache.Transcript transcript = transcriptCache.getTranscript(student);
+                return "{\"student\":" + studentJson(student)
+                    + ",\"enrollments\":" + transcript.getEnrollments().stream().map(HttpApiServer::enrollmentJson).collect(Collectors.joining(",", "[", "]"))
+                    + ",\"gpa\":" + String.format(Locale.ROOT, "%.2f", transcript.getGpa())
+                    + ",\"text\":" + util.JsonUtils.quote(transcript.getText()) + "}";
+            }
+
+            private String postReload(HttpExchange exchange, Map<String, String> params) throws IOException {
+                service.ReloadReport students = studentService.reload();
+                service.ReloadReport instructors = courseService.reloadInstructors();
+                service.ReloadReport courses = courseService.reloadCourses();
+                transcriptCache.invalidate(students, instructors, courses);
+                return "{\"students\":" + reportJson(students) + ",\"instructors\":" + reportJson(instructors)
+                    + ",\"courses\":" + reportJson(courses) + "}";
+            }
+
+            private static String reportJson(service.ReloadReport r) {
+                return String.format("{\"added\":%d,\"updated\":%d,\"unchanged\":%d,\"retired\":%d,\"conflicts\":%d}",
+                        r.getAdded(), r.getUpdated(), r.getUnchanged(), r.getRetired(), r.getConflicts());
+            }
+
+            private String postBackup(HttpExchange exchange, Map<String, String> params) {
+                backupScheduler.runNow();
+                return "{\"started\":true,\"status\":" + getBackupStatus(exchange, params) + "}";
+            }
+
+            private String getBackupStatus(HttpExchange exchange, Map<String, String> params) {
+                io.BackupScheduler.Status s = backupScheduler.getStatus();
+                io.BackupService.BackupResult last = s.getLastBackup();
+                return "{\"intervalSeconds\":" + backupScheduler.getIntervalSeconds()
+                    + ",\"bytesPerSecond\":" + backupScheduler.getBytesPerSecond()
+                    + ",\"keepHourly\":" + backupScheduler.getKeepHourly()
+                    + ",\"keepDaily\":" + backupScheduler.getKeepDaily()
+                    + ",\"running\":" + s.isRunning()
+                    + ",\"runs\":" + s.getRuns()
+                    + ",\"lastRun\":" + (s.getLastStartedAt() == null ? "null" : "{\"startedAt\":" + util.JsonUtils.quote(s.getLastStartedAt().toString())
+                        + ",\"durationMillis\":" + s.getLastDurationMillis()
+                        + ",\"outcome\":" + util.JsonUtils.quote(s.getLastOutcome())
+                        + ",\"pruned\":" + s.getLastPruned()
+                        + ",\"error\":" + util.JsonUtils.quote(s.getLastError()) + "}")
+                    + ",\"lastBackup\":" + (last == null ? "null" : "{\"path\":" + util.JsonUtils.quote(last.getPath().toString())
+                        + ",\"files\":" + last.getFiles() + ",\"bytes\":" + last.getBytes()
+                        + ",\"throttledMillis\":" + last.getThrottledMillis() + "}")
+                    + ",\"nextRunAt\":" + util.JsonUtils.quote(s.getNextRunAt() == null ? null : s.getNextRunAt().toString())
+                    + ",\"retained\":" + s.getRetained() + "}";
+            }
+
+            private String getCacheStats(HttpExchange exchange, Map<String, String> params) {
+                return transcriptCache.getStats();
+            }
+
+            private String postExport(HttpExchange exchange, Map<String, String> params) throws IOException {
+                if ("delta".equals(params.get("mode"))) {
+                    long since = params.containsKey("since") ? Long.parseLong(params.get("since")) : studentService.getExportedSequence();
+                    long studentsThrough = studentService.saveDelta(since);
+                    long coursesThrough = courseService.saveDelta(params.containsKey("since") ? since : courseService.getExportedSequence());
+                    return "{\"mode\":\"delta\",\"since\":" + since + ",\"through\":" + Math.max(studentsThrough, coursesThrough) + "}";
+                }
+                if ("compact".equals(params.get("mode"))) {
+                    return "{\"mode\":\"compact\",\"studentDeltas\":" + studentService.compactDeltas()
+                        + ",\"courseDeltas\":" + courseService.compactDeltas() + "}";
+                }
+                // One snapshot for all files, so the export is a consistent cut even while grades are being written.
+                try (service.Snapshot snapshot = service.VersionClock.getInstance().openSnapshot()) {
+                    studentService.saveData(snapshot);
+                    courseService.saveData(snapshot);
+                    enrollmentService.saveData(snapshot);
+                    return "{\"version\":" + snapshot.getVersion() + ",\"students\":" + studentService.getStudentCount()
+                        + ",\"courses\":" + courseService.getAllCourses().size() + "}";
+                }
+            }
+
+            private domain.Student requireStudent(String id) throws exception.StudentNotFoundException {
+                return studentService.findStudentById(id)
+                    .orElseThrow(() -> new exception.StudentNotFoundException("Student not found: " + id));
+            }
+
+            private HttpHandler route(String method, Route route, String... requiredDatasets) {
+                return exchange -> {
+                    int status = 200;
+                    String body;
+                    try {
+                        Throwable failure = startup != null ? startup.getFailure(requiredDatasets) : null;
+                        if (!method.equals(exchange.getRequestMethod())) {
+                            status = 405;
+                            body = error("Method not allowed");
+                        } else if (failure != null) {
+                            // Not retryable: the data will not load without a restart, so no Retry-After.
+                            status = 500;
+                            body = error("Failed to load " + String.join(", ", requiredDatasets) + ": " + failure.getMessage());
+                        } else if (startup != null && !startup.isReady(requiredDatasets)) {
+                            status = 503;
+                            exchange.getResponseHeaders().set("Retry-After", "1");
+                            body = error("Still loading: " + String.join(", ", requiredDatasets));
+                        } else {
+                            body = route.handle(exchange, readParams(exchange));
+                        }
+                    } catch (exception.StudentNotFoundException | exception.CourseNotFoundException | exception.EnrollmentNotFoundException e) {
+                        status = 404;
+                        body = error(e.getMessage());
+                    } catch (exception.DuplicateEnrollmentException e) {
+                        status = 409;
+                        body = error(e.getMessage());
+                    } catch (exception.MaxCreditLimitExceededException e) {
+                        status = 422;
+                        body = error(e.getMessage());
+                    } catch (IllegalArgumentException e) {
+                        status = 400;
+                        body = error("Invalid request: " + e.getMessage());
+                    } catch (Exception e) {
+                        status = 500;
+                        body = error(e.getMessage());
+                    }
+                    byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+                    exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+                    exchange.sendResponseHeaders(status, bytes.length);
+                    try (OutputStream out = exchange.getResponseBody()) {
+                        out.write(bytes);
+                    }
+                };
+            }
+
+            private static Map<String, String> readParams(HttpExchange exchange) throws IOException {
+                Map<String, String> params = new HashMap<>();
+                parseForm(exchange.getRequestURI().getRawQuery(), params);
+                if ("POST".equals(exchange.getRequestMethod())) {
+                    parseForm(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8), params);
+                }
+                return params;
+            }
+
+            static void parseForm(String form, Map<String, String> params) {
+                if (form == null || form.isBlank()) return;
+                for (String pair : form.split("&")) {
+                    int eq = pair.indexOf('=');
+                    if (eq <= 0) continue;
+                    params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                               URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+                }
+            }
+
+            private static String required(Map<String, String> params, String name) {
+                String value = params.get(name);
+                if (value == null || value.isBlank()) throw new IllegalArgumentException("missing parameter '" + name + "'");
+                return value;
+            }
+
+            private static String pathTail(HttpExchange exchange, String prefix) {
+                return exchange.getRequestURI().getPath().substring(prefix.length());
+            }
+
+            static String error(String message) {
+                return "{\"error\":" + util.JsonUtils.quote(message) + "}";
+            }
+
+            private static String studentJson(domain.Student s) {
+                return "{\"id\":" + util.JsonUtils.quote(s.getId())
+                    + ",\"regNo\":" + util.JsonUtils.quote(s.getRegNo())
+                    + ",\"fullName\":" + util.JsonUtils.quote(s.getFullName())
+                    + ",\"email\":" + util.JsonUtils.quote(s.getEmail())
+                    + ",\"active\":" + s.isActive() + "}";
+            }
+
+            private static String courseJson(domain.Course c) {
+                return "{\"code\":" + util.JsonUtils.quote(c.getCourseCode().toString())
+                    + ",\"title\":" + util.JsonUtils.quote(c.getTitle())
+                    + ",\"credits\":" + c.getCredits()
+                    + ",\"semester\":" + util.JsonUtils.quote(c.getSemester().name())
+                    + ",\"instructor\":" + util.JsonUtils.quote(c.getInstructorName()) + "}";
+            }
+
+            private static String enrollmentJson(domain.Enrollment e) {
+                return "{\"courseCode\":" + util.JsonUtils.quote(e.getCourse().getCourseCode().toString())
+                    + ",\"title\":" + util.JsonUtils.quote(e.getCourse().getTitle())
+                    + ",\"credits\":" + e.getCourse().getCredits()
+                    + ",\"grade\":" + util.JsonUtils.quote(e.getGrade().name()) + "}";
+            }
+        }
+
+        public static class LoadGenerator {
+            public enum Workload { READS, REGISTRATION }
+
+            public static final class Result {
+                private final long requests;
+                private final long errors;
+                private final double throughput;
+                private final double p50Millis;
+                private final double p99Millis;
+
+                private Result(long requests, long errors, double throughput, double p50Millis, double p99Millis) {
+                    this.requests = requests;
+                    this.errors = errors;
+                    this.throughput = throughput;
+                    this.p50Millis = p50Millis;
+                    this.p99Millis = p99Millis;
+                }
+
+                public long getRequests() { return requests; }
+                public long getErrors() { return errors; }
+                public double getThroughput() { return throughput; }
+                public double getP50Millis() { return p50Millis; }
+                public double getP99Millis() { return p99Millis; }
+            }
+
+            private static final String[] PATHS = {
+                "/api/students/s001",
+                "/api/courses?q=cs",
+                "/api/transcripts/s002",
+                "/api/courses?semester=FALL&minCredits=3",
+                "/api/students/s003"
+            };
+            private static final String[] COURSES = { "CS101", "MA201", "PY105" };
+
+            private final URI baseUri;
+            private final int clients;
+            private final long durationMillis;
+            private final Workload workload;
+            private final int students;
+            private final ExecutorService clientExecutor = HttpApiServer.newRequestExecutor();
+            private final HttpClient client;
+
+            public LoadGenerator(String host, int port, int clients, long durationMillis) {
+                this(host, port, clients, durationMillis, Workload.READS, 0);
+            }
+
+            // REGISTRATION walks the generated roster (s000000..): enroll in each course, record a grade, read the transcript.
+            public LoadGenerator(String host, int port, int clients, long durationMillis, Workload workload, int students) {
+                if (workload == Workload.REGISTRATION && students <= 0) {
+                    throw new IllegalArgumentException("Registration load needs a generated roster (-Dccrm.data.syntheticStudents)");
+                }
+                this.baseUri = URI.create("http://" + host + ":" + port);
+                this.clients = clients;
+                this.durationMillis = durationMillis;
+                this.workload = workload;
+                this.students = students;
+                this.client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(clientExecutor)
+                    .build();
+            }
+
+            public Result run() {
+                try {
+                    return runLoad();
+                } finally {
+                    clientExecutor.shutdownNow();
+                }
+            }
+
+            private Result runLoad() {
+                System.out.printf("Load test: %d concurrent clients for %d ms against %s%n", clients, durationMillis, baseUri);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(durationMillis);
+                AtomicLong errors = new AtomicLong();
+                List<List<Long>> latencies = new ArrayList<>(clients);
+                List<CompletableFuture<Void>> done = new ArrayList<>(clients);
+                long started = System.nanoTime();
+                for (int i = 0; i < clients; i++) {
+                    List<Long> sink = new ArrayList<>();
+                    CompletableFuture<Void> finished = new CompletableFuture<>();
+                    latencies.add(sink);
+                    done.add(finished);
+                    fire(i, i, sink, errors, deadline, finished);
+                }
+                CompletableFuture.allOf(done.toArray(CompletableFuture<?>[]::new)).join();
+                double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+
+                long[] all = latencies.stream().flatMap(List::stream).mapToLong(Long::longValue).sorted().toArray();
+                if (all.length == 0) {
+                    System.out.println("No requests completed.");
+                    return new Result(0, errors.get(), 0, 0, 0);
+                }
+                Result result = new Result(all.length, errors.get(), all.length / elapsedSeconds,
+                    percentile(all, 0.50) / 1e6, percentile(all, 0.99) / 1e6);
+                System.out.printf("Requests: %d (errors: %d) in %.2f s%n", all.length, errors.get(), elapsedSeconds);
+                System.out.printf("Throughput: %.0f req/s%n", result.getThroughput());
+                System.out.printf("Latency p50: %.2f ms | p99: %.2f ms | max: %.2f ms%n",
+                    result.getP50Millis(), result.getP99Millis(), all[all.length - 1] / 1e6);
+                return result;
+            }
+
+            // Each client issues its next request only when the previous one completes (closed loop).
+            private void fire(int clientId, int seq, List<Long> sink, AtomicLong errors, long deadline, CompletableFuture<Void> finished) {
+                if (System.nanoTime() >= deadline) {
+                    finished.complete(null);
+                    return;
+                }
+                HttpRequest request = workload == Workload.READS
+                    ? HttpRequest.newBuilder(baseUri.resolve(PATHS[seq % PATHS.length])).GET().build()
+                    : registrationStep(clientId, seq);
+                long start = System.nanoTime();
+                client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, failure) -> {
+                    sink.add(System.nanoTime() - start);
+                    // 409 is a legitimate outcome once the roster wraps around and students re-enroll.
+                    if (failure != null || (response.statusCode() >= 400 && response.statusCode() != 409)) errors.incrementAndGet();
+                    fire(clientId, seq + 1, sink, errors, deadline, finished);
+                });
+            }
+
+            private HttpRequest registrationStep(int clientId, int seq) {
+                int steps = COURSES.length + 2;
+                int sent = seq - clientId;
+                String studentId = String.format("s%06d", (clientId + (long) (sent / steps) * clients) % students);
+                int step = sent % steps;
+                if (step == steps - 1) {
+                    return HttpRequest.newBuilder(baseUri.resolve("/api/transcripts/" + studentId)).GET().build();
+                }
+                String path = step < COURSES.length
+                    ? "/api/enrollments?studentId=" + studentId + "&courseCode=" + COURSES[step]
+                    : "/api/grades?studentId=" + studentId + "&courseCode=" + COURSES[0] + "&grade=A";
+                return HttpRequest.newBuilder(baseUri.resolve(path)).POST(HttpRequest.BodyPublishers.noBody()).build();
+            }
+
+            private static long percentile(long[] sorted, double p) {
+                int index = (int) Math.ceil(p * sorted.length) - 1;
+                return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+            }
+        }
+    }
+
+    public static class cluster {
+        // Front door for a sharded deployment. Student-scoped requests go to the worker that owns the student
+        // (hash of the id); catalog reads go to any worker since every worker holds a read-only catalog replica;
+        // admin calls fan out to all workers. Workers are ordinary --api processes reached over loopback HTTP.
+        public static class ShardRouter {
+            private static final class Reply {
+                private final int status;
+                private final String body;
+                private final String retryAfter;
+
+                Reply(int status, String body, String retryAfter) {
+                    this.status = status;
+                    this.body = body;
+                    this.retryAfter = retryAfter;
+                }
+            }
+
+            @FunctionalInterface
+            private interface Dispatch {
+                Reply handle(HttpExchange exchange, byte[] body) throws Exception;
+            }
+
+            private final List<URI> shards;
+            private final ExecutorService clientExecutor = api.HttpApiServer.newRequestExecutor();
+            private final HttpClient client;
+            private final AtomicLong nextReplica = new AtomicLong();
+            private HttpServer server;
+            private ExecutorService executor;
+
+            public ShardRouter(List<URI> shards) {
+                this.shards = List.copyOf(shards);
+                this.client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(clientExecutor)
+                    .build();
+            }
+
+            public static int shardFor(String studentId, int shardCount) {
+                return Math.floorMod(studentId.hashCode(), shardCount);
+            }
+
+            public void start(int port) throws IOException {
+                api.HttpApiServer.configureServerProperties();
+                server = HttpServer.create(new InetSocketAddress(port), 4096);
+                executor = api.HttpApiServer.newRequestExecutor();
+                server.setExecutor(executor);
+                server.createContext("/api/students", handler(this::listStudents));
+                server.createContext("/api/students/", handler(byPath("/api/students/")));
+                server.createContext("/api/students/stats", handler(this::broadcast));
+                server.createContext("/api/transcripts/", handler(byPath("/api/transcripts/")));
+                server.createContext("/api/enrollments", handler(byParam("studentId")));
+                server.createContext("/api/grades", handler(byParam("studentId")));
+                server.createContext("/api/courses", handler(this::anyReplica));
+                server.createContext("/api/catalog", handler(this::anyReplica));
+                server.createContext("/api/export", handler(this::broadcast));
+                server.createContext("/api/cache/stats", handler(this::broadcast));
+                server.createContext("/api/reload", handler(this::broadcast));
+                server.createContext("/api/backups", handler(this::broadcast));
+                server.createContext("/api/backups/status", handler(this::broadcast));
+                server.start();
+            }
+
+            public void stop() {
+                server.stop(0);
+                executor.shutdown();
+                clientExecutor.shutdownNow();
+            }
+
+            public int getPort() { return server.getAddress().getPort(); }
+
+            private Dispatch byPath(String prefix) {
+                return (exchange, body) -> {
+                    String id = URLDecoder.decode(exchange.getRequestURI().getRawPath().substring(prefix.length()), StandardCharsets.UTF_8);
+                    return forward(shardFor(id, shards.size()), exchange, body);
+                };
+            }
+
+            private Dispatch byParam(String name) {
+                return (exchange, body) -> {
+                    Map<String, String> params = new HashMap<>();
+                    api.HttpApiServer.parseForm(exchange.getRequestURI().getRawQuery(), params);
+                    api.HttpApiServer.parseForm(new String(body, StandardCharsets.UTF_8), params);
+                    String id = params.get(name);
+                    if (id == null || id.isBlank()) {
+                        return new Reply(400, api.HttpApiServer.error("Invalid request: missing parameter '" + name + "'"), null);
+                    }
+                    return forward(shardFor(id, shards.size()), exchange, body);
+                };
+            }
+
+            private Reply anyReplica(HttpExchange exchange, byte[] body) throws Exception {
+                return forward((int) (nextReplica.getAndIncrement() % shards.size()), exchange, body);
+            }
+
+            private Reply broadcast(HttpExchange exchange, byte[] body) throws Exception {
+                List<Reply> replies = forwardAll(exchange, body);
+                int status = replies.stream().mapToInt(r -> r.status).max().orElse(200);
+                return new Reply(status, replies.stream().map(r -> r.body).collect(Collectors.joining(",", "{\"shards\":[", "]}")), null);
+            }
+
+            // Every shard returns its first `limit` ids after the cursor; the global page is the smallest `limit` of those.
+            private Reply listStudents(HttpExchange exchange, byte[] body) throws Exception {
+                Map<String, String> params = new HashMap<>();
+                api.HttpApiServer.parseForm(exchange.getRequestURI().getRawQuery(), params);
+                int limit = Math.min(params.containsKey("limit") ? Integer.parseInt(params.get("limit")) : 50, 1000);
+                TreeMap<String, String> merged = new TreeMap<>();
+                boolean more = false;
+                for (Reply reply : forwardAll(exchange, body)) {
+                    if (reply.status != 200) return reply;
+                    for (String item : pageItems(reply.body)) merged.put(itemId(item), item);
+                    more |= !reply.body.endsWith("\"nextCursor\":null}");
+                }
+                List<String> items = new ArrayList<>(merged.values()).subList(0, Math.min(limit, merged.size()));
+                more |= merged.size() > limit;
+                String nextCursor = more && !items.isEmpty() ? itemId(items.get(items.size() - 1)) : null;
+                return new Reply(200, "{\"items\":[" + String.join(",", items) + "],\"nextCursor\":"
+                    + util.JsonUtils.quote(nextCursor) + "}", null);
+            }
+
+            private Reply forward(int shard, HttpExchange exchange, byte[] body) throws Exception {
+                try {
+                    return toReply(client.send(workerRequest(shard, exchange, body), HttpResponse.BodyHandlers.ofString()));
+                } catch (IOException e) {
+                    return unavailable(shard, e);
+                }
+            }
+
+            private List<Reply> forwardAll(HttpExchange exchange, byte[] body) {
+                List<CompletableFuture<Reply>> pending = new ArrayList<>(shards.size());
+                for (int shard = 0; shard < shards.size(); shard++) {
+                    int target = shard;
+                    pending.add(client.sendAsync(workerRequest(shard, exchange, body), HttpResponse.BodyHandlers.ofString())
+                        .thenApply(ShardRouter::toReply)
+                        .exceptionally(e -> unavailable(target, e)));
+                }
+                return pending.stream().map(CompletableFuture::join).collect(Collectors.toList());
+            }
+
+            private HttpRequest workerRequest(int shard, HttpExchange exchange, byte[] body) {
+                URI request = exchange.getRequestURI();
+                String target = request.getRawPath() + (request.getRawQuery() != null ? "?" + request.getRawQuery() : "");
+                HttpRequest.Builder builder = HttpRequest.newBuilder(shards.get(shard).resolve(target));
+                if ("POST".equals(exchange.getRequestMethod())) {
+                    builder.header("Content-Type", "application/x-www-form-urlencoded")
+                           .POST(HttpRequest.BodyPublishers.ofByteArray(body));
+                } else {
+                    builder.method(exchange.getRequestMethod(), HttpRequest.BodyPublishers.noBody());
+                }
+                return builder.build();
+            }
+
+            private static Reply toReply(HttpResponse<String> response) {
+                return new Reply(response.statusCode(), response.body(), response.headers().firstValue("Retry-After").orElse(null));
+            }
+
+            private static Reply unavailable(int shard, Throwable failure) {
+                return new Reply(502, api.HttpApiServer.error("Shard " + shard + " unavailable: " + failure.getMessage()), "1");
+            }
+
+            private HttpHandler handler(Dispatch dispatch) {
+                return exchange -> {
+                    Reply reply;
+                    try {
+                        reply = dispatch.handle(exchange, exchange.getRequestBody().readAllBytes());
+                    } catch (IllegalArgumentException e) {
+                        reply = new Reply(400, api.HttpApiServer.error("Invalid request: " + e.getMessage()), null);
+                    } catch (Exception e) {
+                        reply = new Reply(502, api.HttpApiServer.error(e.getMessage()), null);
+                    }
+                    byte[] bytes = reply.body.getBytes(StandardCharsets.UTF_8);
+                    exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+                    if (reply.retryAfter != null) exchange.getResponseHeaders().set("Retry-After", reply.retryAfter);
+                    exchange.sendResponseHeaders(reply.status, bytes.length);
+                    try (OutputStream out = exchange.getResponseBody()) {
+                        out.write(bytes);
+                    }
+                };
+            }
+
+            // Top-level objects of a worker page's "items" array (student objects are flat, so depth tracking suffices).
+            private static List<String> pageItems(String json) {
+                List<String> items = new ArrayList<>();
+                int depth = 0;
+                int itemStart = -1;
+                boolean inString = false;
+                for (int i = json.indexOf("\"items\":[") + 9; i < json.length(); i++) {
+                    char c = json.charAt(i);
+                    if (inString) {
+                        if (c == '\\') i++;
+                        else if (c == '"') inString = false;
+                    } else if (c == '"') {
+                        inString = true;
+                    } else if (c == '{') {
+                        if (depth++ == 0) itemStart = i;
+                    } else if (c == '}') {
+                        if (--depth == 0) items.add(json.substring(itemStart, i + 1));
+                    } else if (c == ']' && depth == 0) {
+                        break;
+                    }
+                }
+                return items;
+            }
+
+            private static String itemId(String item) {
+                int start = item.indexOf("\"id\":\"") + 6;
+                StringBuilder id = new StringBuilder();
+                for (int i = start; item.charAt(i) != '"'; i++) {
+                    char c = item.charAt(i);
+                    if (c == '\\') c = item.charAt(++i);
+                    id.append(c);
+                }
+                return id.toString();
+            }
+        }
+
+        // Starts N shard workers as child JVMs on ports port+1..port+N and a router on `port`. Workers inherit the
+        // ccrm.* system properties, get their shard assignment via ccrm.shard.*, and exit when this process does.
+        public static class ClusterLauncher implements AutoCloseable {
+            private static final long READY_TIMEOUT_MILLIS = 120_000;
+
+            private final int port;
+            private final int workers;
+            private final List<Process> processes = new ArrayList<>();
+            private ShardRouter router;
+
+            public ClusterLauncher(int port, int workers) {
+                if (workers < 1) throw new IllegalArgumentException("A cluster needs at least one worker");
+                this.port = port;
+                this.workers = workers;
+            }
+
+            public void start() throws IOException, InterruptedException {
+                List<URI> shardUris = new ArrayList<>(workers);
+                for (int shard = 0; shard < workers; shard++) {
+                    int workerPort = port + 1 + shard;
+                    processes.add(new ProcessBuilder(workerCommand(shard, workerPort))
+                        .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                        .redirectError(ProcessBuilder.Redirect.INHERIT)
+                        .start());
+                    shardUris.add(URI.create("http://localhost:" + workerPort));
+                }
+                awaitWorkers(shardUris);
+                router = new ShardRouter(shardUris);
+                router.start(port);
+            }
+
+            private List<String> workerCommand(int shard, int workerPort) {
+                List<String> command = new ArrayList<>();
+                command.add(ProcessHandle.current().info().command()
+                    .orElse(Paths.get(System.getProperty("java.home"), "bin", "java").toString()));
+                command.add("-cp");
+                command.add(System.getProperty("java.class.path"));
+                System.getProperties().stringPropertyNames().stream()
+                    .filter(name -> name.startsWith("ccrm.") && !name.startsWith("ccrm.shard.") && !name.startsWith("ccrm.cluster."))
+                    .sorted()
+                    .forEach(name -> command.add("-D" + name + "=" + System.getProperty(name)));
+                command.add("-Dccrm.shard.index=" + shard);
+                command.add("-Dccrm.shard.count=" + workers);
+                command.add("-Dccrm.cluster.parentPid=" + ProcessHandle.current().pid());
+                command.add(CCRM_Application.class.getName());
+                command.add("--api");
+                command.add(String.valueOf(workerPort));
+                return command;
+            }
+
+            // A worker is ready once both student and catalog reads stop answering 503.
+            private void awaitWorkers(List<URI> shardUris) throws IOException, InterruptedException {
+                HttpClient probe = HttpClient.newHttpClient();
+                long deadline = System.currentTimeMillis() + READY_TIMEOUT_MILLIS;
+                for (int shard = 0; shard < shardUris.size(); shard++) {
+                    for (String path : List.of("/api/students?limit=1", "/api/courses")) {
+                        HttpRequest request = HttpRequest.newBuilder(shardUris.get(shard).resolve(path)).GET().build();
+                        while (true) {
+                            if (!processes.get(shard).isAlive()) {
+                                throw new IOException("Worker " + shard + " exited with status " + processes.get(shard).exitValue());
+                            }
+                            HttpResponse<String> response = null;
+                            try {
+                                response = probe.send(request, HttpResponse.BodyHandlers.ofString());
+                            } catch (IOException notListeningYet) {
+                                // retry until the deadline
+                            }
+                            if (response != null && response.statusCode() == 200) break;
+                            // 503 means still loading; any other status (a failed load) will not change, so stop waiting.
+                            if (response != null && response.statusCode() != 503) {
+                                throw new IOException("Worker " + shard + " failed to start: " + response.body());
+                            }
+                            if (System.currentTimeMillis() > deadline) throw new IOException("Worker " + shard + " did not become ready");
+                            Thread.sleep(100);
+                        }
+                    }
+                }
+            }
+
+            public int getPort() { return router.getPort(); }
+            public int getWorkerCount() { return workers; }
+            public List<Long> getWorkerPids() { return processes.stream().map(Process::pid).collect(Collectors.toList()); }
+
+            @Override
+            public void close() {
+                if (router != null) router.stop();
+                processes.forEach(Process::destroy);
+                for (Process process : processes) {
+                    try {
+                        if (!process.waitFor(5, TimeUnit.SECONDS)) process.destroyForcibly().waitFor();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+
+            // Called by worker JVMs so a killed launcher never leaves orphaned workers holding ports.
+            public static void exitWithParent() {
+                Long parentPid = Long.getLong("ccrm.cluster.parentPid");
+                if (parentPid == null) return;
+                ProcessHandle.of(parentPid).ifPresentOrElse(
+                    parent -> parent.onExit().thenRun(() -> System.exit(0)),
+                    () -> System.exit(0));
+            }
+        }
+
+        // Runs the registration workload through the router against 1, 2, 4, ... up to maxWorkers workers.
+        public static class ClusterBenchmark {
+            private final int maxWorkers;
+            private final int clients;
+            private final long durationMillis;
+            private final int basePort;
+
+            public ClusterBenchmark(int maxWorkers, int clients, long durationMillis, int basePort) {
+                this.maxWorkers = maxWorkers;
+                this.clients = clients;
+                this.durationMillis = durationMillis;
+                this.basePort = basePort;
+            }
+
+            public void run() throws IOException, InterruptedException {
+                if (System.getProperty("ccrm.data.syntheticStudents") == null) {
+                    System.setProperty("ccrm.data.syntheticStudents", "50000");
+                }
+                int students = Integer.getInteger("ccrm.data.syntheticStudents");
+                Map<Integer, api.LoadGenerator.Result> results = new TreeMap<>();
+                int round = 0;
+                for (int workers = 1; ; workers = Math.min(workers * 2, maxWorkers)) {
+                    int port = basePort + 100 * round++;
+                    try (ClusterLauncher cluster = new ClusterLauncher(port, workers)) {
+                        cluster.start();
+                        System.out.printf("%n=== %d worker(s), router on port %d ===%n", workers, port);
+                        // Short warm-up so JIT compilation isn't billed to the measured run.
+                        new api.LoadGenerator("localhost", port, clients, Math.min(2_000, durationMillis),
+                                api.LoadGenerator.Workload.READS, 0).run();
+                        results.put(workers, new api.LoadGenerator("localhost", port, clients, durationMillis,
+                                api.LoadGenerator.Workload.REGISTRATION, students).run());
+                    }
+                    if (workers == maxWorkers) break;
+                }
+
+                System.out.printf("%n--- Cluster registration benchmark (%d students, %d clients, %d CPUs) ---%n",
+                        students, clients, Runtime.getRuntime().availableProcessors());
+                System.out.println("workers      req/s   p50 ms   p99 ms   errors  speedup");
+                double baseline = results.get(1).getThroughput();
+                results.forEach((workers, r) -> System.out.printf("%7d %10.0f %8.2f %8.2f %8d %7.2fx%n",
+                        workers, r.getThroughput(), r.getP50Millis(), r.getP99Millis(), r.getErrors(),
+                        baseline == 0 ? 0.0 : r.getThroughput() / baseline));
+            }
+        }
+    }
+
     public static void main(String[] args) {
+        if (args.length > 0 && "--api".equals(args[0])) {
+            int port = args.length > 1 ? Integer.parseInt(args[1]) : api.HttpApiServer.DEFAULT_PORT;
+            cluster.ClusterLauncher.exitWithParent();
+            try {
+                new cli.MenuHandler().serve(port);
+            } catch (IOException e) {
+                System.err.println("!!! Could not start HTTP API: " + e.getMessage());
+            }
+            return;
+        }
+        if (args.length > 0 && "--loadgen".equals(args[0])) {
+            int port = args.length > 1 ? Integer.parseInt(args[1]) : api.HttpApiServer.DEFAULT_PORT;
+            int clients = args.length > 2 ? Integer.parseInt(args[2]) : 2000;
+            long seconds = args.length > 3 ? Long.parseLong(args[3]) : 10;
+            api.LoadGenerator.Workload workload = args.length > 4
+                ? api.LoadGenerator.Workload.valueOf(args[4].toUpperCase()) : api.LoadGenerator.Workload.READS;
+            int students = args.length > 5 ? Integer.parseInt(args[5]) : config.AppConfig.getInstance().getSyntheticStudents();
+            new api.LoadGenerator("localhost", port, clients, seconds * 1000, workload, students).run();
+            return;
+        }
+        if (args.length > 0 && "--cluster".equals(args[0])) {
+            int port = args.length > 1 ? Integer.parseInt(args[1]) : api.HttpApiServer.DEFAULT_PORT;
+            int workers = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+            cluster.ClusterLauncher launcher = new cluster.ClusterLauncher(port, workers);
+            Runtime.getRuntime().addShutdownHook(new Thread(launcher::close));
+            try {
+                launcher.start();
+                System.out.println("Router listening on port " + launcher.getPort() + " for " + workers
+                        + " shard worker(s) " + launcher.getWorkerPids());
+            } catch (IOException | InterruptedException e) {
+                System.err.println("!!! Could not start cluster: " + e.getMessage());
+                System.exit(1);
+            }
+            return;
+        }
+        if (args.length > 0 && "--cluster-bench".equals(args[0])) {
+            int workers = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+            int clients = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+            long seconds = args.length > 3 ? Long.parseLong(args[3]) : 10;
+            try {
+                new cluster.ClusterBenchmark(workers, clients, seconds * 1000, 9100).run();
+            } catch (IOException | InterruptedException e) {
+                System.err.println("!!! Cluster benchmark failed: " + e.getMessage());
+                System.exit(1);
+            }
+            return;
+        }
+        if (args.length > 0 && "--snapshot-check".equals(args[0])) {
+            long seconds = args.length > 1 ? Long.parseLong(args[1]) : 5;
+            boolean consistent = new util.SnapshotConsistencyCheck().run(seconds * 1000);
+            System.exit(consistent ? 0 : 1);
+        }
         cli.MenuHandler menu = new cli.MenuHandler();
         menu.start();
     }